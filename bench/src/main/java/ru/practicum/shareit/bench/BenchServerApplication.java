@@ -0,0 +1,41 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.IOException;
+
+/**
+ * Компоненты ShareItServer без классов gateway: модуль бенчмарков видит оба модуля,
+ * а их классы лежат в одних и тех же пакетах.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = ShareItServer.class)
+@EnableJpaRepositories(basePackageClasses = ShareItServer.class)
+@ComponentScan(basePackageClasses = ShareItServer.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.CUSTOM,
+                classes = BenchServerApplication.NotServerFilter.class))
+public class BenchServerApplication {
+
+    public static class NotServerFilter implements TypeFilter {
+        private static final String GATEWAY_LOCATION =
+                ShareItGateway.class.getProtectionDomain().getCodeSource().getLocation().getPath();
+
+        @Override
+        public boolean match(MetadataReader reader, MetadataReaderFactory factory) throws IOException {
+            String className = reader.getClassMetadata().getClassName();
+            return className.equals(ShareItServer.class.getName())
+                    || reader.getResource().getURL().getPath().contains(GATEWAY_LOCATION);
+        }
+    }
+}
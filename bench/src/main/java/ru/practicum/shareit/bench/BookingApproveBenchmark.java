@@ -0,0 +1,147 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подтверждение бронирования одним условным UPDATE против прежней схемы «прочитать, проверить, сохранить».
+ * Перед каждой итерацией вставляются BATCH новых бронирований в статусе WAITING на непересекающиеся
+ * периоды; замер — время подтверждения всей пачки. Встроенная H2 отвечает без сетевой задержки, поэтому
+ * время обращения к БД по сети имитирует roundTripMicros — пауза перед выполнением каждого запроса.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = BookingApproveBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = BookingApproveBenchmark.BATCH)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingApproveBenchmark {
+    static final int BATCH = 1000;
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Param({"0", "300"})
+    int roundTripMicros;
+
+    @Param("100")
+    int users;
+
+    @Param("1000")
+    int items;
+
+    @Param("10000")
+    int bookings;
+
+    @Param("42")
+    long seed;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private ItemLockStripes itemLockStripes;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<long[]> pending = new ArrayList<>();
+    private long nextBookingId;
+    private long nextSlot;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BenchServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .initializers(context -> context.getBeanFactory()
+                        .addBeanPostProcessor(new RoundTripDataSourcePostProcessor(roundTripMicros)))
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        itemLockStripes = context.getBean(ItemLockStripes.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new DatasetSeeder(jdbcTemplate, seed).seed(users, items, bookings, 0);
+        nextBookingId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bookings", Long.class) + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Бронирования раскладываются по вещам по кругу, каждое — на свой час после FAR_FUTURE,
+     * поэтому подтверждение никогда не упирается в пересечение.
+     */
+    @Setup(Level.Iteration)
+    public void insertWaiting() {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        pending.clear();
+        cursor = 0;
+        for (int i = 0; i < BATCH; i++) {
+            long itemId = nextSlot % items + 1;
+            long ownerId = jdbcTemplate.queryForObject("SELECT owner_id FROM items WHERE id = ?", Long.class, itemId);
+            long bookerId = ownerId % users + 1;
+            LocalDateTime start = FAR_FUTURE.plusHours(nextSlot++);
+            rows.add(new Object[]{nextBookingId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                    itemId, bookerId, BookingStatus.WAITING.name()});
+            pending.add(new long[]{nextBookingId++, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", rows);
+    }
+
+    @Benchmark
+    public BookingResponseDto conditionalUpdate() {
+        long[] next = pending.get(cursor++);
+        return bookingService.approve(next[1], next[0], true);
+    }
+
+    @Benchmark
+    public BookingResponseDto readCheckSave() {
+        long[] next = pending.get(cursor++);
+        return transactionTemplate.execute(status -> legacyApprove(next[1], next[0]));
+    }
+
+    /**
+     * Прежняя реализация BookingServiceImpl.approve для approved = true.
+     */
+    private BookingResponseDto legacyApprove(Long ownerId, Long bookingId) {
+        Long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow();
+        itemLockStripes.lockUntilTransactionEnds(itemId);
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            throw new ForbiddenException("Недостаточно прав для подтверждения бронирования");
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ValidationException("Нельзя подтвердить/отклонить уже обработанное бронирование");
+        }
+        if (bookingRepository.existsOverlapping(
+                itemId, bookingId, booking.getStart(), booking.getEnd(), BookingStatus.APPROVED)) {
+            throw new ConflictException("На этот период уже подтверждено другое бронирование");
+        }
+        booking.setStatus(BookingStatus.APPROVED);
+        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+    }
+}
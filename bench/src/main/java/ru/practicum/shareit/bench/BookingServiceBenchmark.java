@@ -0,0 +1,42 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Списки бронирований по состояниям для арендатора и владельца.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    String state;
+
+    @Param("10")
+    int size;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp(ServerState server) {
+        bookingService = server.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> byBooker(ServerState server) {
+        return bookingService.getAllByBooker(server.nextUserId(), state, 0, size, null);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> byOwner(ServerState server) {
+        return bookingService.getAllByOwner(server.nextUserId(), state, 0, size, null);
+    }
+}
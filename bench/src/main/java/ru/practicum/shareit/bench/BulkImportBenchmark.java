@@ -0,0 +1,86 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт каталога вещей: по одной вещи на транзакцию, как при вызове POST /items на каждую строку,
+ * против ItemService.createBatch пачками по batchSize строк. Замер — время импорта rows вещей.
+ * Задержку сети до БД имитирует roundTripMicros, например
+ * -Dbench.args="BulkImportBenchmark -p rows=100000 -p roundTripMicros=300".
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+    @Param("10000")
+    int rows;
+
+    @Param("1000")
+    int batchSize;
+
+    @Param({"0", "300"})
+    int roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+    private List<ItemDto> catalogue;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BenchServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .initializers(context -> context.getBeanFactory()
+                        .addBeanPostProcessor(new RoundTripDataSourcePostProcessor(roundTripMicros)))
+                .run();
+        itemService = context.getBean(ItemService.class);
+        ownerId = context.getBean(UserService.class)
+                .create(new UserDto(null, "Импорт", "import@bench.local")).getId();
+        catalogue = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            catalogue.add(new ItemDto(null, "Вещь " + i, "Описание вещи " + i, i % 10 > 0, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        int created = 0;
+        for (ItemDto item : catalogue) {
+            itemService.create(ownerId, item);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public int batched() {
+        int created = 0;
+        for (int from = 0; from < rows; from += batchSize) {
+            BatchResultDto<ItemDto> result = itemService.createBatch(ownerId,
+                    catalogue.subList(from, Math.min(from + batchSize, rows)));
+            created += result.getCreated();
+        }
+        return created;
+    }
+}
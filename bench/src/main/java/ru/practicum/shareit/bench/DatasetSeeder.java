@@ -0,0 +1,141 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+/**
+ * Заполняет базу детерминированным набором данных: при одинаковом seed получаются одинаковые строки.
+ * Пишет напрямую через JDBC пачками, минуя сервисы, чтобы подготовка больших наборов не занимала минуты.
+ * Строки генерируются по одной пачке, так что память не растёт с размером набора.
+ * На Postgres пачки склеиваются в многострочные INSERT при reWriteBatchedInserts=true в URL.
+ * <p>
+ * С перекосом skew > 0 владельцы вещей, вещи в бронированиях и отзывах и арендаторы выбираются
+ * по закону Ципфа с этим показателем: у пользователей и вещей с малыми id — основная доля вещей
+ * и длинные истории бронирований, как у активных владельцев в реальных данных. При skew = 0
+ * вещи раздаются владельцам по кругу, остальное выбирается равномерно.
+ */
+public class DatasetSeeder {
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] NAMES = {
+            "Дрель", "Шуруповёрт", "Палатка", "Велосипед", "Лестница", "Перфоратор", "Пила", "Удочка",
+            "Самокат", "Проектор", "Кофемашина", "Гитара"
+    };
+    private static final String[] WORDS = {
+            "ударная", "аккумуляторная", "складная", "туристическая", "детский", "алюминиевая", "электрическая",
+            "лёгкая", "мощный", "компактная", "новая", "с чехлом"
+    };
+    private static final BookingStatus[] STATUSES = {
+            BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final double skew;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, long seed) {
+        this(jdbcTemplate, seed, 0);
+    }
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, long seed, double skew) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+        this.skew = skew;
+    }
+
+    public void seed(int users, int items, int bookings, int comments) {
+        seed(users, items, bookings, comments, 0);
+    }
+
+    /**
+     * requests — число запросов вещей; если они есть, каждая десятая вещь создаётся по одному из них.
+     */
+    public void seed(int users, int items, int bookings, int comments, int requests) {
+        ZipfSampler popularUsers = skew > 0 ? new ZipfSampler(users, skew) : null;
+        ZipfSampler popularItems = skew > 0 ? new ZipfSampler(items, skew) : null;
+
+        insert("INSERT INTO users (id, name, email, version) VALUES (?, ?, ?, 0)", users,
+                id -> new Object[]{id, "User " + id, "user" + id + "@bench.local"});
+
+        insert("INSERT INTO item_requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)", requests,
+                id -> new Object[]{id, "Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase(),
+                        randomId(users), Timestamp.valueOf(now.minusHours(random.nextInt(24 * 365)))});
+
+        insert("INSERT INTO items (id, name, description, is_available, owner_id, request_id, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", items, id -> {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + id;
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            boolean available = random.nextInt(10) > 0;
+            long owner = popularUsers != null ? popularUsers.sample(random) : id % users + 1;
+            Long request = requests > 0 && random.nextInt(10) == 0 ? randomId(requests) : null;
+            return new Object[]{id, name, description, available, owner, request};
+        });
+
+        insert("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", bookings, id -> {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 730) - 24 * 365);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 14));
+            return new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(end), pick(popularItems, items),
+                    pick(popularUsers, users), STATUSES[random.nextInt(STATUSES.length)].name()};
+        });
+
+        insert("INSERT INTO comments (id, text, item_id, author_id, created, version) " +
+                "VALUES (?, ?, ?, ?, ?, 0)", comments,
+                id -> new Object[]{id, "Отзыв " + id, pick(popularItems, items), randomId(users),
+                        Timestamp.valueOf(now.minusHours(random.nextInt(24 * 365)))});
+
+        restartSequence("users_seq", users);
+        restartSequence("items_seq", items);
+        restartSequence("bookings_seq", bookings);
+        restartIdentity("comments", comments);
+        restartIdentity("item_requests", requests);
+    }
+
+    /**
+     * Удаляет все строки, которые создаёт {@link #seed}: для повторного заполнения внешней базы.
+     */
+    public void clear() {
+        for (String table : List.of("comments", "bookings", "items", "item_requests", "users")) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+    }
+
+    private long pick(ZipfSampler popular, int count) {
+        return popular != null ? popular.sample(random) : randomId(count);
+    }
+
+    private long randomId(int count) {
+        return random.nextInt(count) + 1L;
+    }
+
+    private void insert(String sql, int count, LongFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            batch.add(row.apply(id));
+            if (batch.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Пуловый оптимизатор Hibernate может считать значение последовательности верхней границей блока id,
+     * поэтому она переставляется на целый блок (allocationSize = 50) дальше последнего вставленного id.
+     */
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastId + 51));
+    }
+
+    private void restartIdentity(String table, long lastId) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+}
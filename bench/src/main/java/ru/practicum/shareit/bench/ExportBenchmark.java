@@ -0,0 +1,76 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полная выгрузка бронирований владельца: потоковый exportByOwner против списка getAllByOwner
+ * на весь объём. JSON пишется в пустой поток. После прогона печатается пиковое заполнение кучи,
+ * например: -Dbench.args="ExportBenchmark -p users=1 -p bookings=300000 -jvmArgsAppend -Xmx1g".
+ * Встроенная H2 сама держит в куче и базу, и весь результат запроса (размер выборки она не учитывает),
+ * поэтому пик потоковой выгрузки не нулевой; разница с getAllByOwner — это сущности и DTO,
+ * которые список удерживает до конца запроса.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+    private BookingService bookingService;
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) {
+        bookingService = server.getBean(BookingService.class);
+        writer = server.getBean(ObjectMapper.class).writer();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Trial)
+    public void printPeakHeap() {
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        System.out.printf("%nПик заполнения кучи: %d МБ%n", peak >> 20);
+    }
+
+    @Benchmark
+    public long stream() {
+        long[] rows = {0};
+        bookingService.exportByOwner(1L, booking -> {
+            write(booking);
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    @Benchmark
+    public long list() {
+        List<BookingResponseDto> bookings = bookingService.getAllByOwner(1L, "ALL", 0, Integer.MAX_VALUE, null);
+        bookings.forEach(this::write);
+        return bookings.size();
+    }
+
+    private void write(BookingResponseDto booking) {
+        try {
+            writer.writeValue(OutputStream.nullOutputStream(), booking);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
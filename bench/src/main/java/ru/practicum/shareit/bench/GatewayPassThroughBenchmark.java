@@ -0,0 +1,135 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проксирование списка бронирований через BaseClient: прежний блокирующий разбор ответа в Object
+ * с повторной сериализацией против сквозной передачи буферов через WebClient. Разницу в аллокациях показывает профилировщик:
+ * -Dbench.args="GatewayPassThrough -prof gc", метрика gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayPassThroughBenchmark {
+    private static final String PATH = "/bookings";
+
+    @Param("1000")
+    int bookings;
+
+    private HttpServer server;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private RestTemplate rest;
+    private ConnectionProvider connectionProvider;
+    private BookingListClient client;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        byte[] payload = objectMapper.writeValueAsBytes(bookingList());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(PATH, exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        });
+        server.start();
+
+        String serverUrl = "http://localhost:" + server.getAddress().getPort();
+        requestFactory = new HttpComponentsClientHttpRequestFactory();
+        rest = new RestTemplate(requestFactory);
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(serverUrl));
+        connectionProvider = ConnectionProvider.create("bench");
+        client = new BookingListClient(WebClient.builder()
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        requestFactory.destroy();
+        connectionProvider.dispose();
+        server.stop(0);
+    }
+
+    /**
+     * Так BaseClient работал раньше: exchange в Object.class, затем контроллер gateway сериализует дерево заново.
+     */
+    @Benchmark
+    public void parseAndReserialize() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        ResponseEntity<Object> response = rest.exchange(PATH, HttpMethod.GET, new HttpEntity<>(headers), Object.class);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+    }
+
+    @Benchmark
+    public void passThrough() {
+        ResponseEntity<Flux<DataBuffer>> response = client.list().block();
+        DataBufferUtils.write(response.getBody(), OutputStream.nullOutputStream())
+                .map(DataBufferUtils::release)
+                .blockLast();
+    }
+
+    private List<BookingResponseDto> bookingList() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<BookingResponseDto> list = new ArrayList<>(bookings);
+        for (long id = 1; id <= bookings; id++) {
+            list.add(new BookingResponseDto(id, start.plusDays(id), start.plusDays(id + 2),
+                    new ItemDto(id, "Дрель " + id, "Ударная дрель с набором свёрл", true, null),
+                    new UserDto(id % 50 + 1, "User " + id % 50, "user" + id % 50 + "@bench.local"),
+                    BookingStatus.APPROVED));
+        }
+        return list;
+    }
+
+    private static class BookingListClient extends BaseClient {
+        BookingListClient(WebClient web) {
+            super(web);
+        }
+
+        Mono<ResponseEntity<Flux<DataBuffer>>> list() {
+            return get(PATH, 1L);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пропускная способность критической секции по вещам в зависимости от числа полос блокировки.
+ * Каждая операция захватывает полосу случайной вещи и выполняет внутри работу длиной work токенов.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ItemLockBenchmark {
+    @Param({"1", "64"})
+    int stripes;
+
+    @Param("1000")
+    int work;
+
+    private ItemLockStripes locks;
+
+    @Setup
+    public void setUp() {
+        locks = new ItemLockStripes(stripes, 5_000);
+    }
+
+    @Benchmark
+    public void lockItem() {
+        ReentrantLock lock = locks.acquire(ThreadLocalRandom.current().nextLong(1, 1_000_000));
+        try {
+            Blackhole.consumeCPU(work);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница поиска доступных вещей по подстроке: частое слово, редкое слово и слово без совпадений.
+ * suggest — подсказки по первым трём буквам того же слова; перцентили задержки даёт режим -bm sample.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    @Param({"дрель", "чехлом", "отсутствует"})
+    String text;
+
+    @Param("10")
+    int size;
+
+    private ItemService itemService;
+    private String prefix;
+
+    @Setup
+    public void setUp(ServerState server) {
+        itemService = server.getBean(ItemService.class);
+        prefix = text.substring(0, 3);
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.search(text, 0, size);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return itemService.suggest(prefix, size);
+    }
+}
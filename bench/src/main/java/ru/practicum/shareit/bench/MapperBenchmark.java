@@ -0,0 +1,60 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.mapper.ItemResponseMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO без обращения к базе.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    @Param("5")
+    int comments;
+
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private List<Comment> itemComments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "Owner", "owner@bench.local", 0L);
+        User booker = new User(2L, "Booker", "booker@bench.local", 0L);
+        item = new Item(1L, "Дрель", "Ударная дрель", true, owner, null, 0L);
+        LocalDateTime now = LocalDateTime.now();
+        lastBooking = new Booking(1L, now.minusDays(3), now.minusDays(1), item, booker, BookingStatus.APPROVED, 0L);
+        nextBooking = new Booking(2L, now.plusDays(1), now.plusDays(3), item, booker, BookingStatus.WAITING, 0L);
+        itemComments = new ArrayList<>();
+        for (long id = 1; id <= comments; id++) {
+            itemComments.add(new Comment(id, "Отзыв " + id, item, booker, now.minusDays(id), 0L));
+        }
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToResponseDto() {
+        return BookingMapper.toBookingResponseDto(lastBooking);
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToResponseDto() {
+        return ItemResponseMapper.toItemResponseDto(item, lastBooking, nextBooking, itemComments);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.bench;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест HTTP-обработки сервера: пул платформенных потоков Tomcat против виртуального потока
+ * на запрос (spring.threads.virtual.enabled). Клиентов больше, чем потоков в пуле Tomcat, поэтому
+ * в платформенном режиме запросы ждут свободного потока. Медленную БД имитирует jdbcDelayMs — пауза
+ * перед выдачей каждого соединения из пула. Пример:
+ * -Dbench.args="RequestHandlingBenchmark -t 400 -p tomcatThreads=50 -p jdbcDelayMs=20".
+ * В виртуальном режиме включается VirtualThreadPinningMonitor; места закрепления носителей
+ * печатаются по завершении прогона.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(200)
+public class RequestHandlingBenchmark {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @State(Scope.Benchmark)
+    public static class WebServerState {
+        @Param({"false", "true"})
+        boolean virtualThreads;
+
+        @Param("50")
+        int tomcatThreads;
+
+        @Param("0")
+        int jdbcDelayMs;
+
+        @Param("100")
+        int users;
+
+        @Param("1000")
+        int items;
+
+        @Param("10000")
+        int bookings;
+
+        @Param("42")
+        long seed;
+
+        private final AtomicLong calls = new AtomicLong();
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private String baseUrl;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(BenchServerApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .profiles("bench")
+                    .properties(
+                            "server.port=0",
+                            "server.tomcat.threads.max=" + tomcatThreads,
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "shareit.virtual-threads.pinning-monitor.enabled=" + virtualThreads)
+                    .initializers(context -> context.getBeanFactory()
+                            .addBeanPostProcessor(new SlowDataSourcePostProcessor(jdbcDelayMs)))
+                    .run();
+            new DatasetSeeder(context.getBean(JdbcTemplate.class), seed).seed(users, items, bookings, 0);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            if (virtualThreads) {
+                printPinning(context.getBean(MeterRegistry.class));
+            }
+            client.close();
+            context.close();
+        }
+
+        int get(String path) throws IOException, InterruptedException {
+            long userId = calls.getAndIncrement() % users + 1;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header(USER_HEADER, String.valueOf(userId))
+                    .GET()
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        long nextItemId() {
+            return calls.get() % items + 1;
+        }
+
+        private static void printPinning(MeterRegistry registry) {
+            System.out.println();
+            System.out.println("Закрепления носителей виртуальных потоков:");
+            for (Timer timer : registry.find("shareit.virtual-threads.pinned").timers()) {
+                System.out.printf("  %-80s count=%d max=%.1f ms%n", timer.getId().getTag("site"),
+                        timer.count(), timer.max(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    /**
+     * Оборачивает DataSource так, что каждое получение соединения задерживается на заданное время,
+     * не занимая при этом соединение пула.
+     */
+    static class SlowDataSourcePostProcessor implements BeanPostProcessor {
+        private final int delayMs;
+
+        SlowDataSourcePostProcessor(int delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (delayMs == 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    try {
+                        Thread.sleep(delayMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.getConnection();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public int ownerBookings(WebServerState server) throws IOException, InterruptedException {
+        return server.get("/bookings/owner?state=ALL&size=10");
+    }
+
+    @Benchmark
+    public int item(WebServerState server) throws IOException, InterruptedException {
+        return server.get("/items/" + server.nextItemId());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Оборачивает DataSource так, что каждый запрос, выполненный через полученное соединение,
+ * начинается с паузы заданной длины.
+ */
+class RoundTripDataSourcePostProcessor implements BeanPostProcessor {
+    private final long delayNanos;
+
+    RoundTripDataSourcePostProcessor(int delayMicros) {
+        this.delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (delayNanos == 0 || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                LockSupport.parkNanos(delayNanos);
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && method.getName().startsWith("prepare")) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                    return proxy(Statement.class, statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
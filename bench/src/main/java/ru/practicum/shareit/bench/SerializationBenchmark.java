@@ -0,0 +1,48 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списков ответов тем же ObjectMapper, что использует сервер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<ItemResponseDto> items;
+    private List<BookingResponseDto> bookings;
+
+    @Setup
+    public void setUp(ServerState server) {
+        objectMapper = server.getBean(ObjectMapper.class);
+        long ownerId = server.nextUserId();
+        items = server.getBean(ItemService.class).getOwnerItemsWithBookingsAndComments(ownerId, 0, size);
+        bookings = server.getBean(BookingService.class).getAllByOwner(ownerId, "ALL", 0, size, null);
+    }
+
+    @Benchmark
+    public byte[] itemResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Контекст сервера на встроенной H2, заполненный набором данных заданного размера.
+ * Размеры меняются параметрами JMH, например -p users=1000 -p bookings=1000000.
+ */
+@State(Scope.Benchmark)
+public class ServerState {
+    @Param("100")
+    int users;
+
+    @Param("1000")
+    int items;
+
+    @Param("10000")
+    int bookings;
+
+    @Param("2000")
+    int comments;
+
+    @Param("42")
+    long seed;
+
+    private final AtomicLong calls = new AtomicLong();
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BenchServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .run();
+        new DatasetSeeder(context.getBean(JdbcTemplate.class), seed).seed(users, items, bookings, comments);
+        context.getBean(ItemSearchIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Пользователи перебираются по кругу, чтобы вызовы не попадали всё время в одни и те же строки.
+     */
+    public long nextUserId() {
+        return calls.getAndIncrement() % users + 1;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Номера от 1 до n с вероятностью, обратно пропорциональной номеру в степени exponent:
+ * первые номера выпадают часто, хвост — редко. Выбор — двоичный поиск по накопленным вероятностям.
+ */
+class ZipfSampler {
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    long sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1) + 1L;
+    }
+}
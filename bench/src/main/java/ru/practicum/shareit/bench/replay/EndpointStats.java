@@ -0,0 +1,115 @@
+package ru.practicum.shareit.bench.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и коды ответа одного запроса коллекции. Задержка хранится в микросекундах
+ * с точностью трёх значащих цифр; отказ соединения или таймаут считается ошибкой, а не кодом.
+ */
+class EndpointStats {
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+    private final String name;
+    private final String endpoint;
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name, String endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+    }
+
+    void record(long latencyNanos, int status) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void recordError(long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        errors.increment();
+    }
+
+    /**
+     * Сводка по всем запросам: гистограммы и счётчики складываются.
+     */
+    static EndpointStats total(Iterable<EndpointStats> all) {
+        EndpointStats total = new EndpointStats("TOTAL", "");
+        for (EndpointStats stats : all) {
+            total.latency.add(stats.latency);
+            stats.statuses.forEach((status, count) ->
+                    total.statuses.computeIfAbsent(status, s -> new LongAdder()).add(count.sum()));
+            total.errors.add(stats.errors.sum());
+        }
+        return total;
+    }
+
+    long count() {
+        return latency.getTotalCount();
+    }
+
+    String row(Duration duration) {
+        StringBuilder row = new StringBuilder(String.format("%-42s %8d %9.1f",
+                abbreviate(name, 42), count(), throughput(duration)));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %9.2f", millis(latency.getValueAtPercentile(percentile))));
+        }
+        row.append(String.format(" %9.2f  %s", millis(latency.getMaxValue()), statusSummary()));
+        return row.toString();
+    }
+
+    static String header() {
+        return String.format("%-42s %8s %9s %9s %9s %9s %9s %9s  %s",
+                "request", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+    }
+
+    ObjectNode toJson(ObjectMapper objectMapper, Duration duration) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("name", name);
+        node.put("endpoint", endpoint);
+        node.put("count", count());
+        node.put("throughput", throughput(duration));
+        ObjectNode percentiles = node.putObject("latencyMs");
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (percentile == 99.9 ? "999" : Long.toString((long) percentile)),
+                    millis(latency.getValueAtPercentile(percentile)));
+        }
+        percentiles.put("max", millis(latency.getMaxValue()));
+        ObjectNode statusNode = node.putObject("statuses");
+        new TreeMap<>(statuses).forEach((status, count) -> statusNode.put(status.toString(), count.sum()));
+        node.put("errors", errors.sum());
+        return node;
+    }
+
+    private double throughput(Duration duration) {
+        return count() * 1000.0 / duration.toMillis();
+    }
+
+    private String statusSummary() {
+        StringBuilder summary = new StringBuilder();
+        new TreeMap<>(statuses).forEach((status, count) -> summary.append(status).append(':').append(count.sum())
+                .append(' '));
+        if (errors.sum() > 0) {
+            summary.append("errors:").append(errors.sum());
+        }
+        return summary.toString().trim();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String abbreviate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, width - 1) + "…";
+    }
+}
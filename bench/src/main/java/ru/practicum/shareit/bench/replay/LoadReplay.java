@@ -0,0 +1,205 @@
+package ru.practicum.shareit.bench.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.bench.replay.PostmanCollection.RequestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон коллекции postman/sprint.json через gateway: запросы коллекции выбираются
+ * случайно с весами, переменные подставляются из заранее созданных данных ({@link ReplayFixtures}),
+ * по каждому запросу коллекции собираются перцентили задержки и коды ответа.
+ * <p>
+ * С --rate N прогон открытый: запросы отправляются по расписанию N в секунду независимо от ответов,
+ * а задержка считается от запланированного момента отправки. Так очередь перед медленным сервером
+ * попадает в перцентили, а не прячется за тем, что клиент сам притормозил. Без --rate каждый из
+ * --concurrency потоков шлёт следующий запрос сразу после ответа на предыдущий.
+ * <p>
+ * Ключи: --collection, --target (адрес gateway; без него jar сервера и gateway запускаются сами),
+ * --server-jar, --gateway-jar, --jvm-args, --concurrency, --rate, --warmup, --duration, --users,
+ * --items-per-user, --seed, --include и --exclude (регулярные выражения по имени запроса; по умолчанию
+ * исключён User delete, который удалял бы пользователей из пула), --weight "regex=n" (повторяемый),
+ * --out (JSON с результатом).
+ */
+public class LoadReplay {
+
+    public static void main(String[] args) throws Exception {
+        ReplayOptions options = ReplayOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        List<RequestTemplate> templates = PostmanCollection.load(options.collection, objectMapper).stream()
+                .filter(t -> options.include.matcher(t.name()).find() && !options.exclude.matcher(t.name()).find())
+                .toList();
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("Под --include/--exclude не попал ни один запрос коллекции");
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ReplayTargets targets = options.target == null ? ReplayTargets.start(options, client) : null;
+        try {
+            String baseUrl = targets != null ? targets.gatewayUrl() : options.target;
+            ReplayFixtures fixtures = ReplayFixtures.create(client, objectMapper, baseUrl, options);
+            System.out.printf("Цель %s, %d запросов коллекции, %d бронирований в пуле, %s%n", baseUrl,
+                    templates.size(), fixtures.size(), options.rate > 0
+                            ? options.rate + " запросов/с, " + options.concurrency + " потоков"
+                            : "закрытый цикл, " + options.concurrency + " потоков");
+            Map<RequestTemplate, EndpointStats> stats = new LinkedHashMap<>();
+            templates.forEach(t -> stats.put(t, new EndpointStats(t.name(), t.endpoint())));
+            new LoadReplay(options, client, baseUrl, fixtures, weighted(templates, options), stats).run();
+            report(options, objectMapper, stats.values());
+        } finally {
+            if (targets != null) {
+                targets.close();
+            }
+        }
+    }
+
+    private final ReplayOptions options;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ReplayFixtures fixtures;
+    private final List<RequestTemplate> schedule;
+    private final Map<RequestTemplate, EndpointStats> stats;
+    private long recordFrom;
+    private long end;
+
+    private LoadReplay(ReplayOptions options, HttpClient client, String baseUrl, ReplayFixtures fixtures,
+                       List<RequestTemplate> schedule, Map<RequestTemplate, EndpointStats> stats) {
+        this.options = options;
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.fixtures = fixtures;
+        this.schedule = schedule;
+        this.stats = stats;
+    }
+
+    private void run() throws InterruptedException {
+        long start = System.nanoTime();
+        recordFrom = start + options.warmup.toNanos();
+        end = recordFrom + options.duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            if (options.rate > 0) {
+                openLoop(workers, start);
+            } else {
+                for (int i = 0; i < options.concurrency; i++) {
+                    Random random = new Random(options.seed + i);
+                    workers.execute(() -> {
+                        while (System.nanoTime() < end) {
+                            RequestTemplate template = next(random);
+                            send(template, render(template, random), System.nanoTime());
+                        }
+                    });
+                }
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Запросы строятся в потоке расписания, чтобы последовательность при одном seed была одной и той же;
+     * пул только отправляет их, и если он не успевает, задачи ждут в очереди, а время ожидания
+     * входит в задержку.
+     */
+    private void openLoop(ExecutorService workers, long start) {
+        Random random = new Random(options.seed);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended >= end) {
+                return;
+            }
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            RequestTemplate template = next(random);
+            HttpRequest request = render(template, random);
+            workers.execute(() -> send(template, request, intended));
+        }
+    }
+
+    private RequestTemplate next(Random random) {
+        return schedule.get(random.nextInt(schedule.size()));
+    }
+
+    private HttpRequest render(RequestTemplate template, Random random) {
+        return template.render(baseUrl, fixtures.bind(template, random)::get);
+    }
+
+    private void send(RequestTemplate template, HttpRequest request, long intended) {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (intended >= recordFrom) {
+                stats.get(template).record(System.nanoTime() - intended, status);
+            }
+        } catch (IOException e) {
+            if (intended >= recordFrom) {
+                stats.get(template).recordError(System.nanoTime() - intended);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Запрос с весом n встречается в списке n раз: равномерный выбор из списка даёт нужные доли.
+     */
+    private static List<RequestTemplate> weighted(List<RequestTemplate> templates, ReplayOptions options) {
+        List<RequestTemplate> schedule = new ArrayList<>();
+        for (RequestTemplate template : templates) {
+            for (int i = 0; i < options.weightOf(template.name()); i++) {
+                schedule.add(template);
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("У всех запросов коллекции нулевой вес");
+        }
+        return schedule;
+    }
+
+    private static void report(ReplayOptions options, ObjectMapper objectMapper,
+                               Iterable<EndpointStats> stats) throws IOException {
+        EndpointStats total = EndpointStats.total(stats);
+        System.out.println();
+        System.out.println(EndpointStats.header());
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("rate", options.rate);
+        result.put("concurrency", options.concurrency);
+        result.put("warmupSeconds", options.warmup.toSeconds());
+        result.put("durationSeconds", options.duration.toSeconds());
+        result.put("seed", options.seed);
+        ArrayNode endpoints = result.putArray("requests");
+        for (EndpointStats endpoint : stats) {
+            if (endpoint.count() > 0) {
+                System.out.println(endpoint.row(options.duration));
+                endpoints.add(endpoint.toJson(objectMapper, options.duration));
+            }
+        }
+        System.out.println(total.row(options.duration));
+        result.set("total", total.toJson(objectMapper, options.duration));
+        objectMapper.writeValue(options.out.toFile(), result);
+        System.out.println("Результат записан в " + options.out.toAbsolutePath().normalize());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.bench.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Запросы коллекции Postman v2.1 как шаблоны: метод, путь, заголовки и тело с переменными {{name}}.
+ * Скрипты коллекции (pre-request и тесты) не исполняются — значения переменных подставляет прогон.
+ */
+class PostmanCollection {
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{([^}]+)}}");
+    /*
+     * Адрес в коллекции записан то как {{baseUrl}}/users, то как localhost:8080/users;
+     * прогон отрезает хост и подставляет свой адрес gateway.
+     */
+    private static final Pattern HOST = Pattern.compile("^(\\{\\{baseUrl}}|(https?://)?[^/{]+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Запрос коллекции. name — имя запроса в коллекции, по нему группируется отчёт.
+     */
+    record RequestTemplate(String folder, String name, String method, String path,
+                           Map<String, String> headers, String body) {
+
+        HttpRequest render(String baseUrl, Function<String, String> variables) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + substitute(path, variables)))
+                    .timeout(TIMEOUT)
+                    .method(method, body.isEmpty()
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(substitute(body, variables)));
+            headers.forEach((header, value) -> request.header(header, substitute(value, variables)));
+            return request.build();
+        }
+
+        /**
+         * Путь без подстановок, с переменными в фигурных скобках: ключ эндпоинта в отчёте.
+         */
+        String endpoint() {
+            return method + " " + VARIABLE.matcher(path).replaceAll("{$1}");
+        }
+    }
+
+    static List<RequestTemplate> load(Path file, ObjectMapper objectMapper) throws IOException {
+        List<RequestTemplate> templates = new ArrayList<>();
+        collect(objectMapper.readTree(file.toFile()).path("item"), "", templates);
+        return templates;
+    }
+
+    /**
+     * Значение, которого нет среди переменных, остаётся как есть, как и в Postman.
+     */
+    static String substitute(String template, Function<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.apply(matcher.group(1));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static void collect(JsonNode items, String folder, List<RequestTemplate> templates) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.path("item"), item.path("name").asText(), templates);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (JsonNode header : request.path("header")) {
+                if (!header.path("disabled").asBoolean(false)) {
+                    headers.put(header.path("key").asText(), header.path("value").asText());
+                }
+            }
+            String body = "raw".equals(request.path("body").path("mode").asText())
+                    ? request.path("body").path("raw").asText()
+                    : "";
+            templates.add(new RequestTemplate(folder, item.path("name").asText().trim(),
+                    request.path("method").asText("GET"), HOST.matcher(raw).replaceFirst(""), headers, body));
+        }
+    }
+}
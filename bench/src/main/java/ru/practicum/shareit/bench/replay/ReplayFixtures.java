@@ -0,0 +1,143 @@
+package ru.practicum.shareit.bench.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.bench.replay.PostmanCollection.RequestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Данные, на которые ссылаются запросы прогона, и подстановка переменных коллекции.
+ * В Postman их создают pre-request скрипты на JavaScript; здесь они создаются один раз перед прогоном
+ * через тот же gateway: пользователи, их вещи, по запросу вещи на пользователя и по ожидающему
+ * бронированию на каждую вещь от следующего пользователя.
+ * <p>
+ * Для каждого запроса выбирается случайное бронирование, и userId — его владелец или арендатор
+ * в зависимости от запроса: вещи и подтверждение — от владельца, бронирования и отзывы — от арендатора,
+ * просмотр бронирования — от любого из них.
+ */
+class ReplayFixtures {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int BOOKING_WINDOW_MINUTES = 365 * 24 * 60;
+
+    private record Booking(long id, long itemId, long ownerId, long bookerId) {
+    }
+
+    private final List<Long> users = new ArrayList<>();
+    private final List<Long> requests = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private final AtomicLong unique = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    static ReplayFixtures create(HttpClient client, ObjectMapper objectMapper, String baseUrl,
+                                 ReplayOptions options) throws IOException, InterruptedException {
+        ReplayFixtures fixtures = new ReplayFixtures();
+        Random random = new Random(options.seed);
+        Seeder seeder = new Seeder(client, objectMapper, baseUrl);
+        for (int i = 0; i < options.users; i++) {
+            fixtures.users.add(seeder.post("/users", null,
+                    Map.of("name", "Replay " + i, "email", fixtures.email())));
+        }
+        for (int i = 0; i < options.users; i++) {
+            long owner = fixtures.users.get(i);
+            long booker = fixtures.users.get((i + 1) % options.users);
+            fixtures.requests.add(seeder.post("/requests", owner, Map.of("description", "Нужна вещь " + i)));
+            for (int j = 0; j < options.itemsPerUser; j++) {
+                long item = seeder.post("/items", owner,
+                        Map.of("name", "Вещь " + i + "." + j, "description", "Описание " + i + "." + j,
+                                "available", true));
+                LocalDateTime start = fixtures.start(random);
+                long booking = seeder.post("/bookings", booker, Map.of("itemId", item,
+                        "start", DATE_TIME.format(start), "end", DATE_TIME.format(start.plusHours(1))));
+                fixtures.bookings.add(new Booking(booking, item, owner, booker));
+            }
+        }
+        return fixtures;
+    }
+
+    int size() {
+        return bookings.size();
+    }
+
+    /**
+     * Значения переменных коллекции для одного запроса.
+     */
+    Map<String, String> bind(RequestTemplate template, Random random) {
+        Booking booking = bookings.get(random.nextInt(bookings.size()));
+        LocalDateTime start = start(random);
+        Map<String, String> variables = new HashMap<>();
+        variables.put("baseUrl", "");
+        variables.put("userId", Long.toString(userFor(template, booking, random)));
+        variables.put("itemId", Long.toString(booking.itemId()));
+        variables.put("bookingId", Long.toString(booking.id()));
+        variables.put("requestId", Long.toString(requests.get(random.nextInt(requests.size()))));
+        variables.put("start", DATE_TIME.format(start));
+        variables.put("end", DATE_TIME.format(start.plusHours(1)));
+        variables.put("userName", "Replay user");
+        variables.put("userEmail", email());
+        variables.put("itemName", "Вещь");
+        variables.put("itemDescription", "Описание вещи");
+        variables.put("itemAvailable", "true");
+        variables.put("requestDescription", "Нужна вещь");
+        variables.put("commentText", "Отзыв");
+        return variables;
+    }
+
+    private static long userFor(RequestTemplate template, Booking booking, Random random) {
+        String path = template.path();
+        String method = template.method();
+        if (path.startsWith("/items") && !path.endsWith("/comment")
+                || path.startsWith("/bookings/owner")
+                || path.startsWith("/bookings/") && "PATCH".equals(method)) {
+            return booking.ownerId();
+        }
+        if (path.startsWith("/bookings/") && "GET".equals(method)) {
+            return random.nextBoolean() ? booking.ownerId() : booking.bookerId();
+        }
+        return booking.bookerId();
+    }
+
+    /**
+     * Начало бронирования: случайная минута в году, начиная с завтрашнего дня, чтобы пересечения были редки.
+     */
+    private LocalDateTime start(Random random) {
+        return LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES)
+                .plusMinutes(random.nextInt(BOOKING_WINDOW_MINUTES));
+    }
+
+    private String email() {
+        return "replay-" + runId + "-" + unique.incrementAndGet() + "@example.com";
+    }
+
+    private record Seeder(HttpClient client, ObjectMapper objectMapper, String baseUrl) {
+        long post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (userId != null) {
+                request.header(USER_HEADER, userId.toString());
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("POST " + path + " вернул " + response.statusCode() + ": "
+                        + response.body());
+            }
+            JsonNode created = objectMapper.readTree(response.body());
+            return created.path("id").asLong();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.bench.replay;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Параметры прогона из командной строки: ключи вида --name value. Пути по умолчанию заданы
+ * относительно bench/target — рабочего каталога профиля replay.
+ */
+class ReplayOptions {
+    Path collection = Path.of("../../postman/sprint.json");
+    String target;
+    Path serverJar = Path.of("../../server/target/shareit-server-0.0.1-SNAPSHOT.jar");
+    Path gatewayJar = Path.of("../../gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar");
+    List<String> jvmArgs = List.of("-Xmx512m");
+    int concurrency = 16;
+    double rate;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    int users = 50;
+    int itemsPerUser = 2;
+    long seed = 42;
+    Pattern include = Pattern.compile(".*");
+    Pattern exclude = Pattern.compile("User delete");
+    final List<Weight> weights = new ArrayList<>();
+    Path out = Path.of("replay-result.json");
+
+    /**
+     * Вес шагов, чьё имя подходит под шаблон; у остальных шагов вес 1.
+     */
+    record Weight(Pattern name, int weight) {
+    }
+
+    static ReplayOptions parse(String[] args) {
+        ReplayOptions options = new ReplayOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Нет значения для " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--collection" -> options.collection = Path.of(value);
+                case "--target" -> options.target = value;
+                case "--server-jar" -> options.serverJar = Path.of(value);
+                case "--gateway-jar" -> options.gatewayJar = Path.of(value);
+                case "--jvm-args" -> options.jvmArgs = Arrays.asList(value.trim().split("\\s+"));
+                case "--concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                case "--duration" -> options.duration = DurationStyle.detectAndParse(value);
+                case "--users" -> options.users = Integer.parseInt(value);
+                case "--items-per-user" -> options.itemsPerUser = Integer.parseInt(value);
+                case "--seed" -> options.seed = Long.parseLong(value);
+                case "--include" -> options.include = Pattern.compile(value);
+                case "--exclude" -> options.exclude = Pattern.compile(value);
+                case "--weight" -> {
+                    int separator = value.lastIndexOf('=');
+                    options.weights.add(new Weight(Pattern.compile(value.substring(0, separator)),
+                            Integer.parseInt(value.substring(separator + 1))));
+                }
+                case "--out" -> options.out = Path.of(value);
+                default -> throw new IllegalArgumentException("Неизвестный ключ " + args[i]);
+            }
+        }
+        if (options.concurrency < 1 || options.users < 2 || options.itemsPerUser < 1) {
+            throw new IllegalArgumentException("Нужны concurrency >= 1, users >= 2, items-per-user >= 1");
+        }
+        return options;
+    }
+
+    int weightOf(String name) {
+        for (Weight weight : weights) {
+            if (weight.name().matcher(name).find()) {
+                return weight.weight();
+            }
+        }
+        return 1;
+    }
+}
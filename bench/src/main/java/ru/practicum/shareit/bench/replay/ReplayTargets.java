@@ -0,0 +1,110 @@
+package ru.practicum.shareit.bench.replay;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервер на встроенной H2 и gateway перед ним, каждый в своей JVM из собранных jar, как в развёртывании.
+ * Вывод процессов пишется в replay-server.log и replay-gateway.log рабочего каталога.
+ */
+class ReplayTargets implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final List<Process> processes = new ArrayList<>();
+    private String gatewayUrl;
+
+    static ReplayTargets start(ReplayOptions options, HttpClient client) throws IOException, InterruptedException {
+        ReplayTargets targets = new ReplayTargets();
+        try {
+            int serverPort = freePort();
+            int gatewayPort = freePort();
+            targets.launch(options, options.serverJar, "replay-server.log",
+                    "--server.port=" + serverPort,
+                    "--spring.datasource.url=jdbc:h2:mem:replay;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.defer-datasource-initialization=true",
+                    "--logging.level.ru.practicum.shareit=WARN");
+            targets.launch(options, options.gatewayJar, "replay-gateway.log",
+                    "--server.port=" + gatewayPort,
+                    "--shareit-server.url=http://localhost:" + serverPort,
+                    "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN");
+            awaitHealthy(client, "http://localhost:" + serverPort);
+            targets.gatewayUrl = "http://localhost:" + gatewayPort;
+            awaitHealthy(client, targets.gatewayUrl);
+            return targets;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            targets.close();
+            throw e;
+        }
+    }
+
+    String gatewayUrl() {
+        return gatewayUrl;
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void launch(ReplayOptions options, Path jar, String log, String... arguments) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Нет " + jar.toAbsolutePath().normalize()
+                    + ": соберите проект (mvn -B install -DskipTests) или укажите --target");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options.jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(List.of(arguments));
+        processes.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of(log).toFile())
+                .start());
+    }
+
+    private static void awaitHealthy(HttpClient client, String baseUrl) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ещё не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(baseUrl + " не поднялся за " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package ru.practicum.shareit.bench.scaling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.bench.BenchServerApplication;
+import ru.practicum.shareit.bench.DatasetSeeder;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Задержка эндпоинтов сервера в зависимости от объёма данных. Для каждого размера из --bookings
+ * поднимается сервер, база заполняется {@link DatasetSeeder} с перекосом --skew (пользователей в сто,
+ * вещей и отзывов в десять раз меньше, чем бронирований), и каждый эндпоинт по очереди вызывается
+ * по HTTP в одном потоке: --warmup на прогрев, затем --measure на замер. JIT догревается в основном
+ * на первом размере, поэтому короткий прогрев занижает k на первом отрезке кривой.
+ * <p>
+ * В конце для каждого эндпоинта печатается кривая: средняя задержка по размерам и показатель роста k
+ * из t ~ n^k между соседними размерами и между крайними. k > 1 — рост хуже линейного.
+ * Результат также пишется в JSON (--out). Эндпоинты «top owner» вызываются от пользователя 1 —
+ * при перекосе это владелец с наибольшим числом вещей и бронирований; остальные — от случайных.
+ * <p>
+ * По умолчанию база — H2 в памяти, отдельная на каждый размер; 10M бронирований требуют порядка
+ * 8 ГБ кучи. Чтобы мерить на Postgres, задайте -Dspring.datasource.url (с reWriteBatchedInserts=true),
+ * username и password: таблицы очищаются перед заполнением каждого размера.
+ */
+public class DataScaling {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int SAMPLE = 1000;
+    private static final String SEARCH_TEXT = URLEncoder.encode("дрель", StandardCharsets.UTF_8);
+
+    private record Endpoint(String name, Function<Random, String> path, Function<Random, Long> user) {
+    }
+
+    private record Measurement(long bookings, double meanMicros, double p50Micros, double p99Micros,
+                               long count, long failures) {
+    }
+
+    private List<Long> sizes = List.of(10_000L, 100_000L, 1_000_000L, 10_000_000L);
+    private double skew = 1.0;
+    private long seed = 42;
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration measure = Duration.ofSeconds(10);
+    private Path out = Path.of("scaling-result.json");
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<String, List<Measurement>> curves = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        DataScaling scaling = new DataScaling();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--bookings" -> scaling.sizes = Arrays.stream(value.split(",")).map(Long::parseLong).toList();
+                case "--skew" -> scaling.skew = Double.parseDouble(value);
+                case "--seed" -> scaling.seed = Long.parseLong(value);
+                case "--warmup" -> scaling.warmup = DurationStyle.detectAndParse(value);
+                case "--measure" -> scaling.measure = DurationStyle.detectAndParse(value);
+                case "--out" -> scaling.out = Path.of(value);
+                default -> throw new IllegalArgumentException("Неизвестный ключ " + args[i]);
+            }
+        }
+        for (long bookings : scaling.sizes) {
+            scaling.run(Math.toIntExact(bookings));
+        }
+        scaling.report();
+    }
+
+    private void run(int bookings) throws IOException, InterruptedException {
+        int users = Math.max(10, bookings / 100);
+        int items = Math.max(10, bookings / 10);
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        if (System.getProperty("spring.datasource.url") == null) {
+            arguments.add("--spring.datasource.url=jdbc:h2:mem:scaling" + bookings);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchServerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("bench")
+                .run(arguments.toArray(String[]::new))) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long started = System.nanoTime();
+            DatasetSeeder seeder = new DatasetSeeder(jdbcTemplate, seed, skew);
+            seeder.clear();
+            seeder.seed(users, items, bookings, items, users / 2);
+            context.getBean(ItemSearchIndex.class).rebuild();
+            System.out.printf("%n%,d бронирований, %,d вещей, %,d пользователей: заполнено за %d с%n",
+                    bookings, items, users, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            for (Endpoint endpoint : endpoints(jdbcTemplate, users, items, users / 2)) {
+                Measurement measurement = measure(baseUrl, endpoint, bookings);
+                curves.computeIfAbsent(endpoint.name(), name -> new ArrayList<>()).add(measurement);
+                System.out.printf("  %-32s mean %10.1f µs  p50 %10.1f µs  p99 %10.1f µs  %d вызовов%s%n",
+                        endpoint.name(), measurement.meanMicros(), measurement.p50Micros(),
+                        measurement.p99Micros(), measurement.count(),
+                        measurement.failures() > 0 ? ", неуспешных " + measurement.failures() : "");
+            }
+        }
+    }
+
+    /**
+     * Бронирования для GET /bookings/{id} берутся из базы вместе с арендатором, чтобы запрос проходил
+     * проверку доступа, а не заканчивался 404.
+     */
+    private List<Endpoint> endpoints(JdbcTemplate jdbcTemplate, int users, int items, int requests) {
+        List<long[]> bookings = jdbcTemplate.query("SELECT id, booker_id FROM bookings ORDER BY id FETCH FIRST "
+                + SAMPLE + " ROWS ONLY", (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        long[][] sample = bookings.toArray(long[][]::new);
+        String window = "from=" + LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                + "&to=" + LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        Function<Random, Long> anyUser = random -> random.nextInt(users) + 1L;
+        Function<Random, Long> topOwner = random -> 1L;
+        return List.of(
+                new Endpoint("GET /users/{id}", random -> "/users/" + anyUser.apply(random), anyUser),
+                new Endpoint("GET /items/{id}", random -> "/items/" + (random.nextInt(items) + 1), anyUser),
+                new Endpoint("GET /items/1 (top item)", random -> "/items/1", topOwner),
+                new Endpoint("GET /items", random -> "/items", anyUser),
+                new Endpoint("GET /items top owner", random -> "/items", topOwner),
+                new Endpoint("GET /items/search", random -> "/items/search?text=" + SEARCH_TEXT, anyUser),
+                new Endpoint("GET /items/1/availability", random -> "/items/1/availability?" + window, anyUser),
+                new Endpoint("GET /bookings/{id}", random -> "/bookings/" + sample[random.nextInt(sample.length)][0],
+                        random -> sample[random.nextInt(sample.length)][1]),
+                new Endpoint("GET /bookings", random -> "/bookings?state=ALL", anyUser),
+                new Endpoint("GET /bookings/owner", random -> "/bookings/owner?state=ALL", anyUser),
+                new Endpoint("GET /bookings/owner top owner", random -> "/bookings/owner?state=ALL", topOwner),
+                new Endpoint("GET /bookings/owner PAST top", random -> "/bookings/owner?state=PAST", topOwner),
+                new Endpoint("GET /requests", random -> "/requests", anyUser),
+                new Endpoint("GET /requests/all", random -> "/requests/all", anyUser),
+                new Endpoint("GET /requests/{id}",
+                        random -> "/requests/" + (random.nextInt(Math.max(requests, 1)) + 1), anyUser));
+    }
+
+    private Measurement measure(String baseUrl, Endpoint endpoint, long bookings)
+            throws IOException, InterruptedException {
+        Random random = new Random(seed);
+        call(baseUrl, endpoint, random, System.nanoTime() + warmup.toNanos(), null);
+        Histogram histogram = new Histogram(3);
+        long failures = call(baseUrl, endpoint, random, System.nanoTime() + measure.toNanos(), histogram);
+        return new Measurement(bookings, histogram.getMean(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99), histogram.getTotalCount(), failures);
+    }
+
+    /**
+     * Путь и пользователь выбираются генераторами с одним зерном: так для GET /bookings/{id}
+     * пользователь — арендатор именно того бронирования, что попало в путь.
+     */
+    private long call(String baseUrl, Endpoint endpoint, Random random, long until, Histogram histogram)
+            throws IOException, InterruptedException {
+        long failures = 0;
+        while (System.nanoTime() < until) {
+            long state = random.nextLong();
+            String path = endpoint.path().apply(new Random(state));
+            long user = endpoint.user().apply(new Random(state));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header(USER_HEADER, Long.toString(user))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long elapsed = System.nanoTime() - start;
+            if (histogram != null) {
+                histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsed));
+                if (status / 100 != 2) {
+                    failures++;
+                }
+            }
+        }
+        return failures;
+    }
+
+    private void report() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("skew", skew);
+        result.put("seed", seed);
+        ArrayNode endpoints = result.putArray("endpoints");
+        List<String> superlinear = new ArrayList<>();
+
+        System.out.printf("%nСредняя задержка, µs, и показатель роста k (t ~ n^k)%n%-32s", "");
+        sizes.forEach(size -> System.out.printf(" %12s", compact(size)));
+        System.out.printf(" %8s%n", "k");
+        curves.forEach((name, points) -> {
+            System.out.printf("%-32s", name);
+            points.forEach(point -> System.out.printf(" %12.1f", point.meanMicros()));
+            double overall = exponent(points.get(0), points.get(points.size() - 1));
+            System.out.printf(" %8.2f%n%-32s", overall, "");
+            ObjectNode node = endpoints.addObject();
+            node.put("name", name);
+            ArrayNode curve = node.putArray("points");
+            for (int i = 0; i < points.size(); i++) {
+                Measurement point = points.get(i);
+                curve.addObject()
+                        .put("bookings", point.bookings())
+                        .put("meanMicros", point.meanMicros())
+                        .put("p50Micros", point.p50Micros())
+                        .put("p99Micros", point.p99Micros())
+                        .put("count", point.count())
+                        .put("failures", point.failures());
+                System.out.printf(" %12s", i == 0 ? "" : String.format("k=%.2f", exponent(points.get(i - 1), point)));
+            }
+            System.out.println();
+            node.put("exponent", overall);
+            if (overall > 1) {
+                superlinear.add(name);
+            }
+        });
+        result.putPOJO("superlinear", superlinear);
+        objectMapper.writeValue(out.toFile(), result);
+        System.out.println(superlinear.isEmpty()
+                ? "Хуже линейного не растёт ни один эндпоинт"
+                : "Хуже линейного растут: " + String.join(", ", superlinear));
+        System.out.println("Результат записан в " + out.toAbsolutePath().normalize());
+    }
+
+    private static double exponent(Measurement from, Measurement to) {
+        if (from.bookings() == to.bookings()) {
+            return 0;
+        }
+        return Math.log(to.meanMicros() / from.meanMicros()) / Math.log((double) to.bookings() / from.bookings());
+    }
+
+    private static String compact(long size) {
+        return size >= 1_000_000 ? size / 1_000_000 + "M" : size >= 1_000 ? size / 1_000 + "k" : Long.toString(size);
+    }
+}
@@ -4,9 +4,13 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -22,31 +26,66 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
-        BookingState state = BookingState.from(stateParam)
-                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return bookingClient.getBookings(userId, state, from, size);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getBookings(userId, parseState(stateParam), from, size, cursor);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getOwnerBookings(userId, parseState(stateParam), from, size, cursor);
+    }
+
+    /**
+     * NDJSON-выгрузка бронирований владельца; тело сервера передаётся клиенту по мере поступления.
+     */
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.exportOwnerBookings(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestBody @Valid BookItemRequestDto requestDto) {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    /**
+     * Строки пакета не проверяются здесь: сервер отклоняет плохие строки по отдельности,
+     * не отменяя остальные.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @RequestBody Flux<DataBuffer> requests) {
+        return bookingClient.bookItems(userId, requests);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long bookingId) {
-        return bookingClient.getBooking(userId, bookingId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable Long bookingId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @PathVariable long bookingId,
-                                                 @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @PathVariable long bookingId,
+                                                                 @RequestParam Boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
+
+    private static BookingState parseState(String stateParam) {
+        return BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+    }
 }
\ No newline at end of file
@@ -1,83 +1,135 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 
 /**
  * Базовый клиент для выполнения REST-вызовов к ShareIt Server.
- * Обеспечивает обработку заголовков, преобразование ошибок, повторное использование RestTemplate.
+ * Обеспечивает обработку заголовков и сквозную неблокирующую передачу ответов сервера.
  */
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    /**
+     * Заголовки ответа сервера, которые имеют смысл для клиента gateway.
+     */
+    private static final List<String> RELAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.LOCATION,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            "X-Next-Cursor"
+    );
+
+    protected final WebClient web;
+
+    public BaseClient(WebClient web) {
+        this.web = web;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, HttpHeaders.EMPTY);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET с If-None-Match клиента. Если тег совпал, сервер отвечает 304 с ETag без тела, и этот ответ
+     * передаётся клиенту как есть.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getConditional(String path, Long userId,
+                                                                    @Nullable String ifNoneMatch) {
+        HttpHeaders validators = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            validators.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, validators);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId,
+                                                              @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, HttpHeaders.EMPTY);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, T body) {
+    /**
+     * POST с телом клиента без разбора: буферы запроса передаются серверу по мере поступления.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> postRaw(String path, @Nullable Long userId,
+                                                             Flux<DataBuffer> body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, HttpHeaders.EMPTY);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, HttpHeaders.EMPTY);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, HttpHeaders.EMPTY);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(
+    /**
+     * Ответ сервера не разбирается: статус, нужные заголовки и буферы тела, в том числе тела ошибок,
+     * передаются клиенту как есть, по мере поступления.
+     */
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(
             HttpMethod method,
             String path,
             Long userId,
             @Nullable Map<String, Object> parameters,
-            @Nullable T body
+            @Nullable T body,
+            HttpHeaders validators
     ) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.addAll(validators);
+                });
+        WebClient.RequestHeadersSpec<?> spec;
+        if (body instanceof Flux<?> buffers) {
+            spec = request.body(BodyInserters.fromDataBuffers(buffers.cast(DataBuffer.class)));
+        } else {
+            spec = body != null ? request.bodyValue(body) : request;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return spec.retrieve()
+                // Статусы ошибок не превращаются в исключения: тела ошибок сервера передаются как есть.
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(BaseClient::relay);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -90,14 +142,21 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> relay(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : RELAYED_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
         }
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.getStatusCode()).headers(headers);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            // У 304 нет тела; пустой поток в ответе заставил бы WebFlux подобрать ему Content-Type.
+            return response.getBody()
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.just(relayed.build()));
         }
-        return responseBuilder.build();
+        return Mono.just(relayed.body(response.getBody()));
     }
-}
\ No newline at end of file
+}
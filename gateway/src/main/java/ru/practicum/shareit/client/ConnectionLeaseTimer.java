@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Замеряет, сколько запрос к ShareIt Server ждёт соединение из пула, — таймер shareit.gateway.http.pool.lease.
+ * Рост этого времени означает, что пул мал для текущей нагрузки.
+ * Фильтр WebClient кладёт в контекст Reactor момент начала обмена, а HttpClient записывает прошедшее время
+ * перед отправкой запроса, то есть уже получив соединение. Если соединение так и не выдано
+ * (таймаут ожидания, переполнение очереди, отмена), время записывается по завершении обмена.
+ */
+class ConnectionLeaseTimer {
+    private static final Class<Lease> KEY = Lease.class;
+
+    private final Timer timer;
+
+    ConnectionLeaseTimer(MeterRegistry meterRegistry) {
+        this.timer = Timer.builder("shareit.gateway.http.pool.lease")
+                .description("Ожидание соединения из пула к ShareIt Server")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class Lease {
+        final long started = System.nanoTime();
+        final AtomicBoolean recorded = new AtomicBoolean();
+    }
+
+    ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.defer(() -> {
+            Lease lease = new Lease();
+            return next.exchange(request)
+                    .doFinally(signal -> record(lease))
+                    .contextWrite(context -> context.put(KEY, lease));
+        });
+    }
+
+    HttpClient instrument(HttpClient httpClient) {
+        return httpClient.doOnRequest((request, connection) ->
+                request.currentContextView().<Lease>getOrEmpty(KEY).ifPresent(this::record));
+    }
+
+    /**
+     * Повторная отправка запроса по новому соединению не записывается второй раз.
+     */
+    private void record(Lease lease) {
+        if (lease.recorded.compareAndSet(false, true)) {
+            timer.record(System.nanoTime() - lease.started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш успешных ответов сервера на частые запросы чтения. Ключ — маршрут, путь, параметры и пользователь
+ * из X-Sharer-User-Id. Объём ограничен суммарным размером тел, время жизни задаётся для каждого маршрута.
+ * Записи маршрута сбрасываются, когда gateway проксирует успешную запись, которая меняет его ответы;
+ * изменения в обход gateway видны не позже чем через TTL.
+ * Попадания и промахи публикуются как cache.* с тегом cache=gateway-responses,
+ * занятый объём — как shareit.gateway.cache.size.
+ */
+@Component
+public class ResponseCache {
+    static final String NAME = "gateway-responses";
+
+    /**
+     * Кэшируемые маршруты.
+     */
+    public enum Route {
+        ITEMS_SEARCH,
+        REQUESTS_ALL
+    }
+
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<Route, Duration> ttls = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> generations = new EnumMap<>(Route.class);
+
+    public ResponseCache(@Value("${shareit-gateway.cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${shareit-gateway.cache.items-search.ttl:30s}") Duration itemsSearchTtl,
+                         @Value("${shareit-gateway.cache.requests-all.ttl:10s}") Duration requestsAllTtl,
+                         MeterRegistry meterRegistry) {
+        ttls.put(Route.ITEMS_SEARCH, itemsSearchTtl);
+        ttls.put(Route.REQUESTS_ALL, requestsAllTtl);
+        for (Route route : Route.values()) {
+            generations.put(route, new AtomicLong());
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, CachedResponse response) -> key.weight() + response.weight())
+                .expireAfter(new RouteExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("shareit.gateway.cache.size", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Суммарный размер закэшированных ответов")
+                .baseUnit("bytes")
+                .tag("cache", NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отдаёт ответ из кэша или выполняет запрос. Успешный ответ собирается в память и кладётся в кэш,
+     * если за время запроса маршрут не был сброшен: иначе в кэш попал бы ответ, прочитанный до записи.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Route route, String path, Map<String, Object> parameters,
+                                                      @Nullable Long userId,
+                                                      Supplier<Mono<ResponseEntity<Flux<DataBuffer>>>> request) {
+        Key key = new Key(route, path, new TreeMap<>(parameters), userId);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.toResponse());
+        }
+        long generation = generations.get(route).get();
+        return request.get().flatMap(response -> {
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                return Mono.just(response);
+            }
+            return DataBufferUtils.join(response.getBody())
+                    .map(ResponseCache::toBytes)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        CachedResponse loaded = new CachedResponse(response.getHeaders(), body);
+                        if (generations.get(route).get() == generation) {
+                            cache.put(key, loaded);
+                        }
+                        return loaded.toResponse();
+                    });
+        });
+    }
+
+    /**
+     * Сбрасывает все записи маршрутов.
+     */
+    public void invalidate(Route... routes) {
+        for (Route route : routes) {
+            generations.get(route).incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> key.route() == route);
+        }
+    }
+
+    /**
+     * Сбрасывает записи маршрутов после успешной записи, ответ передаётся дальше без изменений.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> invalidateOnSuccess(Mono<ResponseEntity<Flux<DataBuffer>>> write,
+                                                                      Route... routes) {
+        return write.doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                invalidate(routes);
+            }
+        });
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private record Key(Route route, String path, Map<String, Object> parameters, Long userId) {
+        int weight() {
+            return path.length() + parameters.toString().length() + 64;
+        }
+    }
+
+    private record CachedResponse(HttpHeaders headers, byte[] body) {
+        int weight() {
+            return body.length + headers.toString().length();
+        }
+
+        ResponseEntity<Flux<DataBuffer>> toResponse() {
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))));
+        }
+    }
+
+    private class RouteExpiry implements Expiry<Key, CachedResponse> {
+        @Override
+        public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+            return ttls.get(key.route()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, CachedResponse response, long currentTime, long currentDuration) {
+            return ttls.get(key.route()).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Key key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
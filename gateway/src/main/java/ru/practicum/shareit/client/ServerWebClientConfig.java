@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Один неблокирующий пул соединений к ShareIt Server на все клиенты gateway.
+ * Запрос, ожидающий ответа сервера, не занимает поток: пока пул занят, он стоит в очереди на соединение.
+ * Заполненность пула публикуется как метрики reactor.netty.connection.provider.*, время ожидания соединения
+ * отдельным запросом — как таймер shareit.gateway.http.pool.lease ({@link ConnectionLeaseTimer}).
+ */
+@Configuration
+public class ServerWebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(
+            @Value("${shareit-server.http.max-connections:100}") int maxConnections,
+            @Value("${shareit-server.http.max-pending:10000}") int maxPending,
+            @Value("${shareit-server.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-server.http.idle-eviction:30s}") Duration idleEviction,
+            @Value("${shareit-server.http.time-to-live:5m}") Duration timeToLive) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer serverConnectorCustomizer(
+            ConnectionProvider serverConnectionProvider,
+            @Value("${shareit-server.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.http.read-timeout:10s}") Duration readTimeout,
+            MeterRegistry meterRegistry) {
+        ConnectionLeaseTimer leaseTimer = new ConnectionLeaseTimer(meterRegistry);
+        HttpClient httpClient = leaseTimer.instrument(HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout));
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(leaseTimer.filter());
+    }
+}
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCache.Route;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
@@ -18,37 +22,63 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    private final ResponseCache responseCache;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Новая вещь может попасть в результаты поиска и в ответы на запросы, поэтому сбрасываются оба маршрута.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(long userId, ItemDto itemDto) {
+        return responseCache.invalidateOnSuccess(post("", userId, itemDto), Route.ITEMS_SEARCH, Route.REQUESTS_ALL);
+    }
+
+    /**
+     * Строки пакета проверяет сервер; кэш сбрасывается, если принят весь пакет или его часть.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(long userId, Flux<DataBuffer> items) {
+        return responseCache.invalidateOnSuccess(postRaw("/batch", userId, items),
+                Route.ITEMS_SEARCH, Route.REQUESTS_ALL);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(long userId, long itemId, ItemDto itemDto) {
+        return responseCache.invalidateOnSuccess(patch("/" + itemId, userId, itemDto),
+                Route.ITEMS_SEARCH, Route.REQUESTS_ALL);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(long userId, long itemId, String ifNoneMatch) {
+        return getConditional("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwner(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getByOwner(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(long userId) {
+        return get("/export", userId);
     }
 
-    public ResponseEntity<Object> search(String text, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(String text, int from, int size) {
         Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        String path = "/search?text={text}&from={from}&size={size}";
+        return responseCache.get(Route.ITEMS_SEARCH, path, parameters, null, () -> get(path, null, parameters));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> suggest(String prefix, int size) {
+        return get("/suggest?prefix={prefix}&size={size}", null, Map.of("prefix", prefix, "size", size));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from.toString(), "to", to.toString());
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, Object commentDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(long userId, long itemId, Object commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
\ No newline at end of file
@@ -4,11 +4,18 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 /**
  * REST-контроллер для управления вещами в ShareIt Gateway.
  */
@@ -20,40 +27,77 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @Valid @RequestBody ItemDto itemDto) {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestBody Flux<DataBuffer> items) {
+        return itemClient.createBatch(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable long itemId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @PathVariable long itemId,
+                                                         @Valid @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                          @PathVariable long itemId) {
-        return itemClient.getById(userId, itemId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnerItems(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemClient.getByOwner(userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnerItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemClient.getByOwner(userId, from, size);
+    }
+
+    /**
+     * NDJSON-выгрузка вещей владельца; тело сервера передаётся клиенту по мере поступления.
+     */
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.exportByOwner(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam(defaultValue = "") String text,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(@RequestParam(defaultValue = "") String text,
+                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
         return itemClient.search(text, from, size);
     }
 
+    /**
+     * Подсказки по префиксу названия; не кэшируются: сервер отвечает из памяти, а новые вещи
+     * должны попадать в подсказки сразу.
+     */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> suggest(@RequestParam(defaultValue = "") String prefix,
+                                                          @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(
+            @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody Object commentDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @PathVariable long itemId,
+                                                             @Valid @RequestBody Object commentDto) {
         return itemClient.addComment(userId, itemId, commentDto);
     }
 }
\ No newline at end of file
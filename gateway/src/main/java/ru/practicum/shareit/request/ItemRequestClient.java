@@ -1,14 +1,18 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCache.Route;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -18,29 +22,34 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    private final ResponseCache responseCache;
+
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(long userId, ItemRequestDto requestDto) {
+        return responseCache.invalidateOnSuccess(post("", userId, requestDto), Route.REQUESTS_ALL);
     }
 
-    public ResponseEntity<Object> getOwnRequests(long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of("from", from, "size", size);
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll(long userId, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        String path = cursor == null ? "/all?from={from}&size={size}" : "/all?from={from}&size={size}&cursor={cursor}";
+        return responseCache.get(Route.REQUESTS_ALL, path, parameters, userId, () -> get(path, userId, parameters));
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
@@ -4,9 +4,12 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 /**
@@ -21,26 +24,27 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                @Valid @RequestBody ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                @Valid @RequestBody ItemRequestDto requestDto) {
         return itemRequestClient.create(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         return itemRequestClient.getOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllRequests(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-            @Positive @RequestParam(defaultValue = "10") Integer size) {
-        return itemRequestClient.getAll(userId, from, size);
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return itemRequestClient.getAll(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequestById(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long requestId) {
         return itemRequestClient.getById(userId, requestId);
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCache.Route;
 import ru.practicum.shareit.user.dto.UserDto;
 
 
@@ -17,28 +20,37 @@ import ru.practicum.shareit.user.dto.UserDto;
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    private final ResponseCache responseCache;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto userDto) {
+    /**
+     * Строки пакета проверяет сервер: ошибка одной строки возвращается в её результате и не отменяет остальные.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(Flux<DataBuffer> users) {
+        return postRaw("/batch", null, users);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(long userId, UserDto userDto) {
         return patch("/" + userId, userId, userDto);
     }
 
-    public ResponseEntity<Object> get(long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> delete(long userId) {
-        return delete("/" + userId, userId);
+    /**
+     * Вместе с пользователем сервер удаляет его вещи и запросы.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(long userId) {
+        return responseCache.invalidateOnSuccess(delete("/" + userId, userId), Route.ITEMS_SEARCH, Route.REQUESTS_ALL);
     }
 }
\ No newline at end of file
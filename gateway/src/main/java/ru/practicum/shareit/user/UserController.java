@@ -2,8 +2,11 @@ package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 /**
@@ -16,22 +19,27 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@Valid @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(@RequestBody Flux<DataBuffer> users) {
+        return userClient.createBatch(users);
+    }
+
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable long userId, @RequestBody UserDto userDto) {
         return userClient.update(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(@PathVariable long userId) {
         return userClient.get(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(@PathVariable long userId) {
         return userClient.delete(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Общая схема пакетного создания: каждая строка проверяется и превращается в сущность по отдельности,
+ * ошибка строки попадает в её результат и не прерывает пакет. Принятые строки сохраняются
+ * одним вызовом, чтобы Hibernate отправил их пачками INSERT (hibernate.jdbc.batch_size).
+ */
+@Component
+public class BatchImporter {
+    private final int maxSize;
+
+    public BatchImporter(@Value("${shareit.batch.max-size:1000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param prepare проверяет строку и возвращает несохранённую сущность; бросает исключение ShareIt,
+     *                если строку нужно отклонить
+     * @param saveAll сохраняет принятые сущности и возвращает их представления в том же порядке
+     */
+    public <R, E, D> BatchResultDto<D> run(List<R> rows, Function<R, E> prepare, Function<List<E>, List<D>> saveAll) {
+        checkSize(rows);
+        List<BatchResultDto.Row<D>> results = new ArrayList<>(Collections.nCopies(rows.size(), null));
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<E> accepted = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                accepted.add(prepare.apply(rows.get(i)));
+                acceptedIndexes.add(i);
+            } catch (RuntimeException e) {
+                results.set(i, new BatchResultDto.Row<>(i, statusOf(e).value(), null, messageOf(e)));
+            }
+        }
+        List<D> saved = accepted.isEmpty() ? List.of() : saveAll.apply(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.set(index, new BatchResultDto.Row<>(index, HttpStatus.CREATED.value(), saved.get(i), null));
+        }
+        return new BatchResultDto<>(saved.size(), rows.size() - saved.size(), results);
+    }
+
+    /**
+     * Пустой или слишком большой пакет отклоняется целиком. Сервисы вызывают проверку до того,
+     * как загрузить связанные данные для всего пакета.
+     */
+    public void checkSize(List<?> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new ValidationException("Пакет не может быть пустым");
+        }
+        if (rows.size() > maxSize) {
+            throw new ValidationException("В пакете не может быть больше " + maxSize + " строк");
+        }
+    }
+
+    /**
+     * Код ошибки строки — тот же, что {@link ru.practicum.shareit.exception.ErrorHandler} вернул бы
+     * на одиночный запрос. Прочие исключения означают сбой, а не плохую строку, и прерывают пакет.
+     */
+    private static HttpStatus statusOf(RuntimeException e) {
+        if (e instanceof ValidationException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof NotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof ConflictException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (e instanceof ForbiddenException) {
+            return HttpStatus.FORBIDDEN;
+        }
+        if (e instanceof ResponseStatusException statusException) {
+            return HttpStatus.valueOf(statusException.getStatusCode().value());
+        }
+        throw e;
+    }
+
+    private static String messageOf(RuntimeException e) {
+        return e instanceof ResponseStatusException statusException ? statusException.getReason() : e.getMessage();
+    }
+}
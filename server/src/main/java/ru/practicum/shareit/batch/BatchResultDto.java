@@ -0,0 +1,34 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Ответ на пакетное создание: по строке результата на каждую строку запроса в том же порядке.
+ * Принятая строка несёт созданный объект, отклонённая — код и текст ошибки, как у одиночного запроса.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto<T> {
+    private int created;
+    private int failed;
+    private List<Row<T>> rows;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row<T> {
+        private int index;
+        private int status;
+        private T body;
+        private String error;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.NdjsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/bookings")
+@RequiredArgsConstructor
+public class BookingController {
+
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping
+    public BookingResponseDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                     @RequestBody BookingDto bookingDto) {
+        return bookingService.create(userId, bookingDto);
+    }
+
+    @PostMapping("/batch")
+    public BatchResultDto<BookingResponseDto> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody List<BookingDto> bookings) {
+        return bookingService.createBatch(userId, bookings);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public BookingResponseDto approve(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @PathVariable Long bookingId,
+                                      @RequestParam Boolean approved) {
+        return bookingService.approve(userId, bookingId, approved);
+    }
+
+    /**
+     * Отдаёт ETag по версиям строк; если он совпал с If-None-Match, отвечает 304 без сборки ответа.
+     */
+    @GetMapping("/{bookingId}")
+    public BookingResponseDto get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  @PathVariable Long bookingId,
+                                  WebRequest request) {
+        if (request.checkNotModified(bookingService.getETag(userId, bookingId))) {
+            return null;
+        }
+        return bookingService.getById(userId, bookingId);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BookingResponseDto>> getAllByBooker(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getAllByBooker(userId, state, from, size, cursor), size);
+    }
+
+    @GetMapping("/owner")
+    public ResponseEntity<List<BookingResponseDto>> getAllByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getAllByOwner(userId, state, from, size, cursor), size);
+    }
+
+    /**
+     * Все бронирования вещей владельца в NDJSON, в порядке id. Ответ пишется по мере чтения из БД.
+     */
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+        bookingService.exportByOwner(userId, writer);
+        writer.finish();
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> page, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        KeysetCursor.next(page, size, BookingResponseDto::getStart, BookingResponseDto::getId)
+                .ifPresent(cursor -> response.header(KeysetCursor.HEADER, cursor));
+        return response.body(page);
+    }
+}
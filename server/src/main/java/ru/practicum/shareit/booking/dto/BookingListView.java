@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская строка списка бронирований: поля бронирования, вещи и арендатора из одного SELECT с JOIN.
+ * Hibernate создаёт её конструктором прямо из строки результата, управляемых сущностей за ней нет;
+ * {@link BookingResponseDto} собирается из неё напрямую.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingListView {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Проекция бронирования для ETag: участники и суммарная версия бронирования, вещи и арендатора —
+ * всего, что попадает в {@link BookingResponseDto}. Версии только растут, поэтому любое изменение
+ * одной из строк меняет сумму.
+ */
+public interface BookingVersionView {
+    Long getId();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Long getVersion();
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Таблица блокировок, разбитая на полосы по id вещи. Операции с одной вещью выполняются
+ * по очереди, с разными — параллельно (кроме редких совпадений полосы).
+ * Блокировка действует в пределах одного экземпляра сервера.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripeCount,
+                           @Value("${shareit.booking.lock-timeout-ms:5000}") long timeoutMillis) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Число полос блокировки должно быть положительным");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Захватывает полосу вещи до конца текущей транзакции: она освобождается после коммита или отката,
+     * поэтому следующий запрос по той же вещи видит уже зафиксированные данные.
+     */
+    public void lockUntilTransactionEnds(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        ReentrantLock lock = acquire(itemId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Захватывает полосы набора вещей до конца текущей транзакции. Полосы берутся по возрастанию номера,
+     * поэтому два пакета с пересекающимися вещами не ждут друг друга по кругу.
+     */
+    public void lockAllUntilTransactionEnds(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        SortedMap<Integer, Long> itemByStripe = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            itemByStripe.putIfAbsent(stripeIndex(itemId), itemId);
+        }
+        List<ReentrantLock> held = new ArrayList<>(itemByStripe.size());
+        try {
+            for (Map.Entry<Integer, Long> entry : itemByStripe.entrySet()) {
+                held.add(lock(stripes[entry.getKey()], entry.getValue()));
+            }
+        } catch (RuntimeException e) {
+            held.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    /**
+     * Захватывает полосу вещи; освободить её обязан вызывающий.
+     */
+    public ReentrantLock acquire(Long itemId) {
+        return lock(stripes[stripeIndex(itemId)], itemId);
+    }
+
+    private ReentrantLock lock(ReentrantLock lock, Long itemId) {
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Вещь " + itemId + " сейчас бронируется другим запросом, повторите попытку");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Ожидание блокировки вещи " + itemId + " прервано");
+        }
+        return lock;
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
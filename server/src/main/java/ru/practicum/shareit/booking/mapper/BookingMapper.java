@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingListView;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 public class BookingMapper {
@@ -17,4 +20,17 @@ public class BookingMapper {
                 booking.getStatus()
         );
     }
-}
\ No newline at end of file
+
+    public static BookingResponseDto toBookingResponseDto(BookingListView view) {
+        if (view == null) return null;
+        return new BookingResponseDto(
+                view.getId(),
+                view.getStart(),
+                view.getEnd(),
+                new ItemDto(view.getItemId(), view.getItemName(), view.getItemDescription(),
+                        view.getItemAvailable(), view.getItemRequestId()),
+                new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()),
+                view.getStatus()
+        );
+    }
+}
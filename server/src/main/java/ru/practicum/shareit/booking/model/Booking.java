@@ -3,13 +3,18 @@ package ru.practicum.shareit.booking.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "ix_booking_booker_start", columnList = "booker_id, start_date DESC, id DESC"),
+        @Index(name = "ix_booking_item_start", columnList = "item_id, start_date DESC, id DESC")
+})
 @Getter
 @Setter
 @ToString
@@ -18,7 +23,8 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -29,6 +35,7 @@ public class Booking {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     Item item;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,4 +45,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     BookingStatus status;
+
+    @Version
+    @Column(nullable = false)
+    Long version;
 }
\ No newline at end of file
@@ -1,31 +1,171 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingListView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBooker_Id(Long bookerId, Sort sort);
-    List<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime end, Sort sort);
-    List<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
-    List<Booking> findByItem_Owner_Id(Long ownerId, Sort sort);
-    List<Booking> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime end, Sort sort);
-    List<Booking> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime start, Sort sort);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.end < CURRENT_TIMESTAMP ORDER BY b.end DESC")
+    /*
+     * Списки бронирований листаются по ключу (start DESC, id DESC): ?2 и ?3 — позиция курсора,
+     * строки строго после неё. Для первой страницы передаётся KeysetCursor.FIRST.
+     * Строки читаются плоской проекцией BookingListView, без загрузки сущностей.
+     */
+    String LIST_VIEW = "SELECT new ru.practicum.shareit.booking.dto.BookingListView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.request, " +
+            "u.id, u.name, u.email) FROM Booking b JOIN b.item i JOIN b.booker u ";
+    String BY_BOOKER = LIST_VIEW + "WHERE u.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) ";
+    String BY_OWNER = LIST_VIEW + "WHERE i.owner.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) ";
+    String KEYSET_ORDER = "ORDER BY b.start DESC, b.id DESC";
+    /*
+     * Условные переходы из WAITING: статус и владелец проверяются в том же UPDATE под блокировкой строки,
+     * поэтому из одновременных ответов владельца строку меняет только первый. ?1 — бронирование, ?2 — владелец.
+     */
+    String WAITING_FOR_OWNER = "WHERE b.id = ?1 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND EXISTS (SELECT i.id FROM Item i WHERE i.id = b.item.id AND i.owner.id = ?2)";
+    /*
+     * Столько строк выгрузки курсор забирает из БД за раз; с тем же шагом сервис отсоединяет прочитанные
+     * сущности. Кэш второго уровня при выгрузке не пополняется, чтобы полный дамп не вытеснил горячие записи.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+    String VERSION_VIEW = "SELECT b.id AS id, b.booker.id AS bookerId, b.item.owner.id AS ownerId, " +
+            "b.version + b.item.version + b.booker.version AS version FROM Booking b ";
+
+    @Query(BY_BOOKER + KEYSET_ORDER)
+    List<BookingListView> findByBookerAfterCursor(Long bookerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BY_BOOKER + "AND b.start < ?4 AND b.end > ?4 " + KEYSET_ORDER)
+    List<BookingListView> findCurrentByBookerAfterCursor(Long bookerId, LocalDateTime start, Long id,
+                                                         LocalDateTime now, Pageable pageable);
+
+    @Query(BY_BOOKER + "AND b.end < ?4 " + KEYSET_ORDER)
+    List<BookingListView> findPastByBookerAfterCursor(Long bookerId, LocalDateTime start, Long id,
+                                                      LocalDateTime now, Pageable pageable);
+
+    @Query(BY_BOOKER + "AND b.start > ?4 " + KEYSET_ORDER)
+    List<BookingListView> findFutureByBookerAfterCursor(Long bookerId, LocalDateTime start, Long id,
+                                                        LocalDateTime now, Pageable pageable);
+
+    @Query(BY_BOOKER + "AND b.status = ?4 " + KEYSET_ORDER)
+    List<BookingListView> findByBookerAndStatusAfterCursor(Long bookerId, LocalDateTime start, Long id,
+                                                           BookingStatus status, Pageable pageable);
+
+    @Query(BY_OWNER + KEYSET_ORDER)
+    List<BookingListView> findByOwnerAfterCursor(Long ownerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BY_OWNER + "AND b.start < ?4 AND b.end > ?4 " + KEYSET_ORDER)
+    List<BookingListView> findCurrentByOwnerAfterCursor(Long ownerId, LocalDateTime start, Long id,
+                                                        LocalDateTime now, Pageable pageable);
+
+    @Query(BY_OWNER + "AND b.end < ?4 " + KEYSET_ORDER)
+    List<BookingListView> findPastByOwnerAfterCursor(Long ownerId, LocalDateTime start, Long id,
+                                                     LocalDateTime now, Pageable pageable);
+
+    @Query(BY_OWNER + "AND b.start > ?4 " + KEYSET_ORDER)
+    List<BookingListView> findFutureByOwnerAfterCursor(Long ownerId, LocalDateTime start, Long id,
+                                                       LocalDateTime now, Pageable pageable);
+
+    @Query(BY_OWNER + "AND b.status = ?4 " + KEYSET_ORDER)
+    List<BookingListView> findByOwnerAndStatusAfterCursor(Long ownerId, LocalDateTime start, Long id,
+                                                          BookingStatus status, Pageable pageable);
+
+    /*
+     * Последнее и следующее бронирования вещи. При совпадении даты выбирается бронирование с бóльшим id
+     * для последнего и с меньшим — для следующего; тот же порядок у версий ниже и у пакетных запросов,
+     * чтобы тело ответа и ETag строились по одной строке.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.end < CURRENT_TIMESTAMP " +
+            "ORDER BY b.end DESC, b.id DESC")
     List<Booking> findLastBookingsByItemId(Long itemId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.start > CURRENT_TIMESTAMP ORDER BY b.start ASC")
+    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.start > CURRENT_TIMESTAMP " +
+            "ORDER BY b.start ASC, b.id ASC")
     List<Booking> findNextBookingsByItemId(Long itemId, Pageable pageable);
 
+    /**
+     * Последние завершённые бронирования сразу для набора вещей — по одной строке на вещь
+     * (несколько только при совпадении даты окончания; первой идёт строка с бóльшим id).
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 AND b.end < CURRENT_TIMESTAMP " +
+            "AND b.end = (SELECT MAX(b2.end) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.end < CURRENT_TIMESTAMP) " +
+            "ORDER BY b.id DESC")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds);
+
+    /**
+     * Ближайшие будущие бронирования сразу для набора вещей — по одной строке на вещь
+     * (несколько только при совпадении даты начала; первой идёт строка с меньшим id).
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 AND b.start > CURRENT_TIMESTAMP " +
+            "AND b.start = (SELECT MIN(b2.start) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.start > CURRENT_TIMESTAMP) " +
+            "ORDER BY b.id")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds);
+
+    @Query(VERSION_VIEW + "WHERE b.id = ?1")
+    Optional<BookingVersionView> findVersionById(Long bookingId);
+
+    /**
+     * Версии последнего и следующего бронирований вещи — тех же строк, что выбирают
+     * findLastBookingsByItemId и findNextBookingsByItemId.
+     */
+    @Query(VERSION_VIEW + "WHERE b.item.id = ?1 AND b.end < CURRENT_TIMESTAMP ORDER BY b.end DESC, b.id DESC")
+    List<BookingVersionView> findLastBookingVersionsByItemId(Long itemId, Pageable pageable);
+
+    @Query(VERSION_VIEW + "WHERE b.item.id = ?1 AND b.start > CURRENT_TIMESTAMP ORDER BY b.start ASC, b.id ASC")
+    List<BookingVersionView> findNextBookingVersionsByItemId(Long itemId, Pageable pageable);
+
+    /**
+     * ?3 — вещь бронирования: сервис уже знает её по блокировке, и пересечения ищутся по индексу вещи.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED, " +
+            "b.version = b.version + 1 " + WAITING_FOR_OWNER + " AND NOT EXISTS (SELECT o.id FROM Booking o " +
+            "WHERE o.item.id = ?3 AND o.id <> b.id " +
+            "AND o.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND o.start < b.end AND o.end > b.start)")
+    int approveIfWaiting(Long bookingId, Long ownerId, Long itemId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED, " +
+            "b.version = b.version + 1 " + WAITING_FOR_OWNER)
+    int rejectIfWaiting(Long bookingId, Long ownerId);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = ?1 ORDER BY b.id")
+    Stream<Booking> streamByOwner(Long ownerId);
+
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = ?1")
+    Optional<Long> findItemIdById(Long bookingId);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = ?1 AND b.id <> ?2 AND b.status = ?5 " +
+            "AND b.start < ?4 AND b.end > ?3")
+    boolean existsOverlapping(Long itemId, Long excludedBookingId, LocalDateTime start, LocalDateTime end,
+                              BookingStatus status);
+
+    List<Booking> findByItem_IdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
     boolean existsByItemIdAndBookerIdAndEndIsBeforeAndStatus(
             Long itemId,
             Long bookerId,
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+class BookedInterval {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
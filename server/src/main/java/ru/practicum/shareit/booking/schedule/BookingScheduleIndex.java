@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Календарь занятости вещей: для каждой вещи — дерево интервалов её бронирований
+ * в статусах WAITING и APPROVED. Дерево вещи загружается из БД при первом обращении,
+ * дальше поддерживается созданием, подтверждением и отклонением бронирований.
+ * Деревья хранятся в кэше, ограниченном по размеру и времени без обращений; вытесненное дерево
+ * при следующем обращении загружается заново. Метрики публикуются как cache.* с тегом cache=booking-schedules.
+ */
+@Component
+public class BookingScheduleIndex {
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    static final String NAME = "booking-schedules";
+    private static final int STAMP_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> schedules;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public BookingScheduleIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.cache.booking-schedules.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.cache.booking-schedules.expire-after-access:30m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, NAME);
+    }
+
+    /**
+     * Пересекается ли [start, end) с действующим бронированием вещи.
+     */
+    public boolean isBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = schedule(itemId);
+        synchronized (tree) {
+            return tree.overlaps(start, end);
+        }
+    }
+
+    /**
+     * Свободные промежутки вещи внутри окна [from, to), по возрастанию.
+     */
+    public List<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookedInterval> booked = new ArrayList<>();
+        BookingIntervalTree tree = schedule(itemId);
+        synchronized (tree) {
+            tree.collectOverlapping(from, to, booked);
+        }
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookedInterval interval : booked) {
+            if (interval.getStart().isAfter(cursor)) {
+                slots.add(new FreeSlotDto(cursor, interval.getStart()));
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+            if (!cursor.isBefore(to)) {
+                return slots;
+            }
+        }
+        slots.add(new FreeSlotDto(cursor, to));
+        return slots;
+    }
+
+    /**
+     * Учитывает сохранённое бронирование после коммита транзакции: WAITING и APPROVED занимают
+     * календарь, прочие статусы его освобождают. Перед этим сдвигается отметка вещи, чтобы дерево,
+     * загруженное из БД до коммита, не попало в кэш без этого бронирования (см. {@link #schedule}).
+     */
+    public void onBookingSaved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean active = ACTIVE_STATUSES.contains(booking.getStatus());
+        afterCommit(() -> {
+            stamps.incrementAndGet(stripe(itemId));
+            BookingIntervalTree tree = schedules.getIfPresent(itemId);
+            if (tree == null) {
+                return;
+            }
+            synchronized (tree) {
+                if (active) {
+                    tree.put(bookingId, start, end);
+                } else {
+                    tree.remove(bookingId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Дерево загружается вне атомарного вычисления кэша: то держит блокировку ключа на время запроса к БД,
+     * что блокирует соседние ключи и закрепляет поток-носитель виртуального потока.
+     * Если два запроса загрузили дерево одновременно, остаётся первое. Если за время загрузки
+     * {@link #onBookingSaved} сдвинул отметку вещи, изменение могло пройти мимо ещё не установленного
+     * дерева — тогда оно убирается из кэша и при следующем обращении загружается заново.
+     */
+    private BookingIntervalTree schedule(Long itemId) {
+        BookingIntervalTree tree = schedules.getIfPresent(itemId);
+        if (tree != null) {
+            return tree;
+        }
+        int stripe = stripe(itemId);
+        long stamp = stamps.get(stripe);
+        BookingIntervalTree loaded = load(itemId);
+        BookingIntervalTree existing = schedules.asMap().putIfAbsent(itemId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (stamps.get(stripe) != stamp) {
+            schedules.asMap().remove(itemId, loaded);
+        }
+        return loaded;
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (Booking booking : bookingRepository.findByItem_IdAndStatusIn(itemId, ACTIVE_STATUSES)) {
+            tree.put(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        return tree;
+    }
+
+    private static int stripe(Long itemId) {
+        return Long.hashCode(itemId) & (STAMP_STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
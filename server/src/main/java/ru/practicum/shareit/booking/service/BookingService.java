@@ -1,13 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto create(Long bookerId, BookingDto bookingDto);
+    BatchResultDto<BookingResponseDto> createBatch(Long bookerId, List<BookingDto> bookings);
     BookingResponseDto approve(Long ownerId, Long bookingId, Boolean approved);
     BookingResponseDto getById(Long userId, Long bookingId);
-    List<BookingResponseDto> getAllByBooker(Long bookerId, String state);
-    List<BookingResponseDto> getAllByOwner(Long ownerId, String state);
+    String getETag(Long userId, Long bookingId);
+    List<BookingResponseDto> getAllByBooker(Long bookerId, String state, int from, int size, String cursor);
+    void exportByOwner(Long ownerId, Consumer<? super BookingResponseDto> sink);
+    List<BookingResponseDto> getAllByOwner(Long ownerId, String state, int from, int size, String cursor);
 }
\ No newline at end of file
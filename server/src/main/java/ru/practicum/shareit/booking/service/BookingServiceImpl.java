@@ -1,35 +1,62 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingListView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemService itemService;
     private final UserService userService;
+    private final BookingScheduleIndex bookingScheduleIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final BatchImporter batchImporter;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -40,46 +67,90 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDto == null) {
             throw new ValidationException("Данные бронирования не могут быть null");
         }
-        var item = itemService.getItemById(bookingDto.getItemId());
-        if (!item.getAvailable()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь недоступна для бронирования");
-        }
-        if (item.getOwner().getId().equals(bookerId)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Нельзя забронировать собственную вещь");
-        }
-        if (!bookingDto.getStart().isBefore(bookingDto.getEnd()) || bookingDto.getStart().equals(bookingDto.getEnd())) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Некорректные даты бронирования");
-        }
-        if (bookingDto.getStart().isBefore(LocalDateTime.now())) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата начала бронирования не может быть в прошлом");
+        if (bookingDto.getItemId() == null) {
+            throw new ValidationException("Не указана вещь для бронирования");
         }
-        if (bookingDto.getStart() == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата начала бронирования обязательна");
-        }
-        if (bookingDto.getEnd() == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата окончания бронирования обязательна");
+        itemLockStripes.lockUntilTransactionEnds(bookingDto.getItemId());
+        Item item = itemService.getItemById(bookingDto.getItemId());
+        checkBookable(bookerId, item, bookingDto);
+        Booking saved = bookingRepository.save(newBooking(bookingDto, item, userService.getUserById(bookerId)));
+        bookingScheduleIndex.onBookingSaved(saved);
+        return BookingMapper.toBookingResponseDto(saved);
+    }
+
+    /**
+     * Пакетное создание бронирований одного арендатора. Полосы блокировки всех вещей пакета захватываются
+     * сразу, вещи загружаются одним запросом. Строка проверяется так же, как одиночное бронирование,
+     * и дополнительно на пересечение с уже принятыми строками пакета для той же вещи.
+     */
+    @Override
+    @Transactional
+    public BatchResultDto<BookingResponseDto> createBatch(Long bookerId, List<BookingDto> bookings) {
+        if (bookerId == null || bookerId <= 0) {
+            throw new ValidationException("Некорректный идентификатор пользователя");
         }
-        Booking booking = new Booking();
-        booking.setStart(bookingDto.getStart());
-        booking.setEnd(bookingDto.getEnd());
-        booking.setItem(item);
-        booking.setBooker(userService.getUserById(bookerId));
-        booking.setStatus(WAITING);
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        batchImporter.checkSize(bookings);
+        User booker = userService.getUserById(bookerId);
+        Set<Long> itemIds = bookings.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        itemLockStripes.lockAllUntilTransactionEnds(itemIds);
+        Map<Long, Item> items = itemService.getItemsById(itemIds);
+        Map<Long, List<Booking>> acceptedByItem = new HashMap<>();
+        return batchImporter.run(bookings, bookingDto -> {
+            if (bookingDto == null) {
+                throw new ValidationException("Данные бронирования не могут быть null");
+            }
+            if (bookingDto.getItemId() == null) {
+                throw new ValidationException("Не указана вещь для бронирования");
+            }
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Вещь с ID " + bookingDto.getItemId() + " не найдена");
+            }
+            checkBookable(bookerId, item, bookingDto);
+            List<Booking> accepted = acceptedByItem.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+            for (Booking other : accepted) {
+                if (other.getStart().isBefore(bookingDto.getEnd()) && other.getEnd().isAfter(bookingDto.getStart())) {
+                    throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+                }
+            }
+            Booking booking = newBooking(bookingDto, item, booker);
+            accepted.add(booking);
+            return booking;
+        }, entities -> {
+            List<Booking> saved = bookingRepository.saveAll(entities);
+            saved.forEach(bookingScheduleIndex::onBookingSaved);
+            return saved.stream().map(BookingMapper::toBookingResponseDto).toList();
+        });
     }
 
+    /**
+     * Переход из WAITING выполняется одним условным UPDATE. Если строка не изменилась, причина выясняется
+     * по перечитанному бронированию: не владелец — 403, уже обработано — 400, иначе период занят
+     * другим подтверждённым бронированием — 409. Подтверждение по-прежнему идёт под блокировкой вещи:
+     * NOT EXISTS в UPDATE не видит незафиксированное подтверждение пересекающегося бронирования.
+     */
     @Override
     @Transactional
     public BookingResponseDto approve(Long ownerId, Long bookingId, Boolean approved) {
-        Booking booking = getBookingOrThrow(bookingId);
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new ForbiddenException("Недостаточно прав для подтверждения бронирования");
+        int updated;
+        if (approved) {
+            Long itemId = bookingRepository.findItemIdById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Бронирование с ID " + bookingId + " не найдено"));
+            itemLockStripes.lockUntilTransactionEnds(itemId);
+            updated = bookingRepository.approveIfWaiting(bookingId, ownerId, itemId);
+        } else {
+            updated = bookingRepository.rejectIfWaiting(bookingId, ownerId);
         }
-        if (booking.getStatus() != WAITING) {
-            throw new ValidationException("Нельзя подтвердить/отклонить уже обработанное бронирование");
+        Booking booking = getBookingOrThrow(bookingId);
+        if (updated == 0) {
+            throw transitionFailure(booking, ownerId);
         }
-        booking.setStatus(approved ? APPROVED : REJECTED);
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        bookingScheduleIndex.onBookingSaved(booking);
+        return BookingMapper.toBookingResponseDto(booking);
     }
 
     @Override
@@ -91,48 +162,132 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingResponseDto(booking);
     }
 
+    /**
+     * Строгий ETag ответа {@link #getById} по версиям бронирования, вещи и арендатора, без загрузки сущностей.
+     * Права проверяются так же, как в getById, чтобы тег не выдавал чужие бронирования.
+     */
     @Override
-    public List<BookingResponseDto> getAllByBooker(Long bookerId, String state) {
+    public String getETag(Long userId, Long bookingId) {
+        BookingVersionView booking = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с ID " + bookingId + " не найдено"));
+        if (!booking.getBookerId().equals(userId) && !booking.getOwnerId().equals(userId)) {
+            throw new NotFoundException("Бронирование не найдено");
+        }
+        return "b" + bookingId + "." + booking.getVersion();
+    }
+
+    /**
+     * Бронирования пользователя по состоянию. Если передан cursor, страница начинается сразу после него,
+     * а from игнорируется; иначе пропускается from строк.
+     */
+    @Override
+    public List<BookingResponseDto> getAllByBooker(Long bookerId, String state, int from, int size, String cursor) {
         userService.getUserById(bookerId);
-        var sort = org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "start");
-        List<Booking> bookings = switch (state == null ? "ALL" : state) {
-            case "ALL" -> bookingRepository.findByBooker_Id(bookerId, sort);
-            case "CURRENT" -> bookingRepository.findByBooker_Id(bookerId, sort).stream()
-                    .filter(b -> b.getStart().isBefore(LocalDateTime.now()) && b.getEnd().isAfter(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            case "PAST" -> bookingRepository.findByBooker_IdAndEndIsBefore(bookerId, LocalDateTime.now(), sort);
-            case "FUTURE" -> bookingRepository.findByBooker_IdAndStartIsAfter(bookerId, LocalDateTime.now(), sort);
-            case "WAITING" -> filterByStatus(bookingRepository.findByBooker_Id(bookerId, sort), WAITING);
-            case "REJECTED" -> filterByStatus(bookingRepository.findByBooker_Id(bookerId, sort), REJECTED);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        LocalDateTime start = position.getTime();
+        Long id = position.getId();
+        Pageable page = toPage(from, size, cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingListView> bookings = switch (state == null ? "ALL" : state) {
+            case "ALL" -> bookingRepository.findByBookerAfterCursor(bookerId, start, id, page);
+            case "CURRENT" -> bookingRepository.findCurrentByBookerAfterCursor(bookerId, start, id, now, page);
+            case "PAST" -> bookingRepository.findPastByBookerAfterCursor(bookerId, start, id, now, page);
+            case "FUTURE" -> bookingRepository.findFutureByBookerAfterCursor(bookerId, start, id, now, page);
+            case "WAITING" -> bookingRepository.findByBookerAndStatusAfterCursor(bookerId, start, id, WAITING, page);
+            case "REJECTED" -> bookingRepository.findByBookerAndStatusAfterCursor(bookerId, start, id, REJECTED, page);
             default -> throw new ValidationException("Unknown state: " + state);
         };
         return bookings.stream().map(BookingMapper::toBookingResponseDto).collect(Collectors.toList());
     }
 
+    /**
+     * Бронирования читаются курсором по EXPORT_FETCH_SIZE строк; прочитанные сущности отсоединяются
+     * с тем же шагом, поэтому контекст персистентности не растёт вместе с выгрузкой.
+     */
+    @Override
+    public void exportByOwner(Long ownerId, Consumer<? super BookingResponseDto> sink) {
+        userService.getUserById(ownerId);
+        try (Stream<Booking> bookings = bookingRepository.streamByOwner(ownerId)) {
+            Iterator<Booking> rows = bookings.iterator();
+            for (int read = 1; rows.hasNext(); read++) {
+                sink.accept(BookingMapper.toBookingResponseDto(rows.next()));
+                if (read % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     @Override
-    public List<BookingResponseDto> getAllByOwner(Long ownerId, String state) {
+    public List<BookingResponseDto> getAllByOwner(Long ownerId, String state, int from, int size, String cursor) {
         userService.getUserById(ownerId);
-        var sort = org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "start");
-        List<Booking> bookings = switch (state == null ? "ALL" : state) {
-            case "ALL" -> bookingRepository.findByItem_Owner_Id(ownerId, sort);
-            case "CURRENT" -> bookingRepository.findByItem_Owner_Id(ownerId, sort).stream()
-                    .filter(b -> b.getStart().isBefore(LocalDateTime.now()) && b.getEnd().isAfter(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            case "PAST" -> bookingRepository.findByItem_Owner_IdAndEndIsBefore(ownerId, LocalDateTime.now(), sort);
-            case "FUTURE" -> bookingRepository.findByItem_Owner_IdAndStartIsAfter(ownerId, LocalDateTime.now(), sort);
-            case "WAITING" -> filterByStatus(bookingRepository.findByItem_Owner_Id(ownerId, sort), WAITING);
-            case "REJECTED" -> filterByStatus(bookingRepository.findByItem_Owner_Id(ownerId, sort), REJECTED);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        LocalDateTime start = position.getTime();
+        Long id = position.getId();
+        Pageable page = toPage(from, size, cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingListView> bookings = switch (state == null ? "ALL" : state) {
+            case "ALL" -> bookingRepository.findByOwnerAfterCursor(ownerId, start, id, page);
+            case "CURRENT" -> bookingRepository.findCurrentByOwnerAfterCursor(ownerId, start, id, now, page);
+            case "PAST" -> bookingRepository.findPastByOwnerAfterCursor(ownerId, start, id, now, page);
+            case "FUTURE" -> bookingRepository.findFutureByOwnerAfterCursor(ownerId, start, id, now, page);
+            case "WAITING" -> bookingRepository.findByOwnerAndStatusAfterCursor(ownerId, start, id, WAITING, page);
+            case "REJECTED" -> bookingRepository.findByOwnerAndStatusAfterCursor(ownerId, start, id, REJECTED, page);
             default -> throw new ValidationException("Unknown state: " + state);
         };
         return bookings.stream().map(BookingMapper::toBookingResponseDto).collect(Collectors.toList());
     }
 
+    private void checkBookable(Long bookerId, Item item, BookingDto bookingDto) {
+        if (!item.getAvailable()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь недоступна для бронирования");
+        }
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Нельзя забронировать собственную вещь");
+        }
+        if (bookingDto.getStart() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата начала бронирования обязательна");
+        }
+        if (bookingDto.getEnd() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата окончания бронирования обязательна");
+        }
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Некорректные даты бронирования");
+        }
+        if (bookingDto.getStart().isBefore(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Дата начала бронирования не может быть в прошлом");
+        }
+        if (bookingScheduleIndex.isBooked(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+        }
+    }
+
+    private static Booking newBooking(BookingDto bookingDto, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setStart(bookingDto.getStart());
+        booking.setEnd(bookingDto.getEnd());
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(WAITING);
+        return booking;
+    }
+
+    private static RuntimeException transitionFailure(Booking booking, Long ownerId) {
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return new ForbiddenException("Недостаточно прав для подтверждения бронирования");
+        }
+        if (booking.getStatus() != WAITING) {
+            return new ValidationException("Нельзя подтвердить/отклонить уже обработанное бронирование");
+        }
+        return new ConflictException("На этот период уже подтверждено другое бронирование");
+    }
+
     private Booking getBookingOrThrow(Long id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID " + id + " не найдено"));
     }
 
-    private List<Booking> filterByStatus(List<Booking> bookings, BookingStatus status) {
-        return bookings.stream().filter(b -> b.getStatus() == status).collect(Collectors.toList());
+    private Pageable toPage(int from, int size, String cursor) {
+        return new OffsetPageRequest(cursor == null || cursor.isBlank() ? from : 0, size, Sort.unsorted());
     }
 }
\ No newline at end of file
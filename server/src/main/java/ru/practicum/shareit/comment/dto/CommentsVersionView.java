@@ -0,0 +1,13 @@
+package ru.practicum.shareit.comment.dto;
+
+/**
+ * Сводка комментариев вещи для ETag: число, наибольший id и сумма версий комментариев и их авторов.
+ * Добавление комментария меняет число и id, правка комментария или имени автора — сумму.
+ */
+public interface CommentsVersionView {
+    Long getCount();
+
+    Long getMaxId();
+
+    Long getVersionSum();
+}
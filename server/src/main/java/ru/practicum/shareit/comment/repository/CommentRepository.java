@@ -1,11 +1,22 @@
 package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.comment.dto.CommentsVersionView;
 import ru.practicum.shareit.comment.model.Comment;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = ?1 ORDER BY c.created")
     List<Comment> findByItemId(Long itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN ?1 ORDER BY c.created")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT COUNT(c) AS count, COALESCE(MAX(c.id), 0) AS maxId, " +
+            "COALESCE(SUM(c.version + c.author.version), 0) AS versionSum FROM Comment c WHERE c.item.id = ?1")
+    CommentsVersionView findVersionByItemId(Long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.NdjsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ItemController {
+
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping
+    public ItemDto create(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto itemDto) {
+        return itemService.create(userId, itemDto);
+    }
+
+    @PostMapping("/batch")
+    public BatchResultDto<ItemDto> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody List<ItemDto> items) {
+        return itemService.createBatch(userId, items);
+    }
+
+    @PatchMapping("/{itemId}")
+    public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          @PathVariable Long itemId,
+                          @RequestBody ItemDto itemDto) {
+        return itemService.update(userId, itemId, itemDto);
+    }
+
+    /**
+     * Отдаёт ETag по версиям строк; если он совпал с If-None-Match, отвечает 304 без сборки ответа.
+     */
+    @GetMapping("/{itemId}")
+    public ItemResponseDto get(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                               @PathVariable Long itemId,
+                               WebRequest request) {
+        if (request.checkNotModified(itemService.getETag(itemId, userId))) {
+            return null;
+        }
+        return itemService.getByIdWithBookingsAndComments(itemId, userId);
+    }
+
+    @GetMapping
+    public List<ItemResponseDto> getOwnerItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(defaultValue = "0") Integer from,
+                                               @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.getOwnerItemsWithBookingsAndComments(userId, from, size);
+    }
+
+    /**
+     * Все вещи владельца в NDJSON, в порядке id. Ответ пишется по мере чтения из БД.
+     */
+    @GetMapping("/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+        itemService.exportByOwner(userId, writer);
+        writer.finish();
+    }
+
+    @GetMapping("/search")
+    public List<ItemDto> search(@RequestParam(defaultValue = "") String text,
+                                @RequestParam(defaultValue = "0") Integer from,
+                                @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.search(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam(defaultValue = "") String prefix,
+                                @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @PathVariable Long itemId,
+                                 @RequestBody CommentDto commentDto) {
+        return itemService.addComment(userId, itemId, commentDto);
+    }
+}
@@ -1,12 +1,12 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
@@ -20,34 +20,42 @@ public class ItemResponseMapper {
             BookingRepository bookingRepository,
             CommentRepository commentRepository,
             boolean showBookings) {
-        List<BookingResponseDto> lastBookings = Collections.emptyList();
-        List<BookingResponseDto> nextBookings = Collections.emptyList();
+        Booking lastBooking = null;
+        Booking nextBooking = null;
         if (showBookings) {
-            lastBookings = bookingRepository
-                    .findLastBookingsByItemId(item.getId(),
-                            PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "end")))
+            lastBooking = bookingRepository
+                    .findLastBookingsByItemId(item.getId(), PageRequest.of(0, 1))
                     .stream()
-                    .map(BookingMapper::toBookingResponseDto)
-                    .toList();
-            nextBookings = bookingRepository
-                    .findNextBookingsByItemId(item.getId(),
-                            PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "start")))
+                    .findFirst()
+                    .orElse(null);
+            nextBooking = bookingRepository
+                    .findNextBookingsByItemId(item.getId(), PageRequest.of(0, 1))
                     .stream()
-                    .map(BookingMapper::toBookingResponseDto)
-                    .toList();
+                    .findFirst()
+                    .orElse(null);
         }
-        List<CommentDto> comments = commentRepository.findByItemId(item.getId())
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .toList();
+        return toItemResponseDto(item, lastBooking, nextBooking, commentRepository.findByItemId(item.getId()));
+    }
+
+    /**
+     * Собирает ответ из заранее загруженных данных, не обращаясь к репозиториям.
+     */
+    public static ItemResponseDto toItemResponseDto(
+            Item item,
+            Booking lastBooking,
+            Booking nextBooking,
+            List<Comment> comments) {
+        List<CommentDto> commentDtos = comments == null || comments.isEmpty()
+                ? Collections.emptyList()
+                : comments.stream().map(CommentMapper::toCommentDto).toList();
         return new ItemResponseDto(
                 item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                lastBookings.isEmpty() ? null : lastBookings.get(0),
-                nextBookings.isEmpty() ? null : nextBookings.get(0),
-                comments.isEmpty() ? Collections.emptyList() : comments
+                BookingMapper.toBookingResponseDto(lastBooking),
+                BookingMapper.toBookingResponseDto(nextBooking),
+                commentDtos
         );
     }
-}
\ No newline at end of file
+}
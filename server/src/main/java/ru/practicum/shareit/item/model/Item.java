@@ -4,13 +4,22 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import ru.practicum.shareit.user.model.User;
 
 /**
  * Сущность вещи в системе ShareIt.
  */
 @Entity
-@Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "items", indexes = {
+        @Index(name = "ix_item_owner", columnList = "owner_id, id"),
+        @Index(name = "ix_item_request", columnList = "request_id")
+})
 @Getter
 @Setter
 @ToString
@@ -19,7 +28,8 @@ import ru.practicum.shareit.user.model.User;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     Long id;
 
     @NotBlank
@@ -35,8 +45,13 @@ public class Item {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     User owner;
 
     @Column(name = "request_id")
     Long request;
+
+    @Version
+    @Column(nullable = false)
+    Long version;
 }
\ No newline at end of file
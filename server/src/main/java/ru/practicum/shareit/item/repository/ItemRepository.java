@@ -1,21 +1,55 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /*
+     * Шаг курсора выгрузки вещей, см. BookingRepository.EXPORT_FETCH_SIZE.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
     List<Item> findByOwner_IdOrderById(Long ownerId);
 
+    List<Item> findByOwner_Id(Long ownerId, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = ?1")
+    List<Long> findIdsByOwner(Long ownerId);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1 ORDER BY i.id")
+    Stream<Item> streamByOwner(Long ownerId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Item> findByRequest(Long requestId);
 
+    List<Item> findByRequestIn(Collection<Long> requestIds);
+
+    Slice<Item> findByAvailableTrue(Pageable pageable);
+
+    /**
+     * Запасной путь поиска, когда ответить из индекса нельзя. Совпадения в названии идут раньше
+     * совпадений только в описании; целые слова здесь не различаются.
+     */
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true " +
             "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
-    List<Item> search(String text);
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY CASE WHEN UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) THEN 0 ELSE 1 END, i.id")
+    List<Item> search(String text, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,434 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Находит те же вещи, что и {@link ItemRepository#search}, — по регистронезависимому вхождению подстроки,
+ * без полного сканирования таблицы items, — и ранжирует их: совпадение в названии выше совпадения
+ * в описании, совпадение целым словом выше вхождения внутрь слова, при равенстве — по возрастанию id.
+ * Слова из названий тех же вещей собраны в {@link NameTrie} для подсказок по префиксу.
+ * Строится при старте и при ручном перестроении, дальше обновляется по мере сохранения вещей.
+ * Обработчики коммитов разных транзакций могут выполниться не в порядке коммитов, поэтому каждый снимок
+ * вещи несёт её {@code @Version}, и снимок старше уже учтённого отбрасывается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    static final int GRAM = 3;
+    static final int NAME_TOKEN = 8;
+    static final int NAME_SUBSTRING = 4;
+    static final int DESCRIPTION_TOKEN = 2;
+    static final int DESCRIPTION_SUBSTRING = 1;
+    private static final int REBUILD_BATCH = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    private List<IndexedItem> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Перечитывает все доступные вещи из БД и подменяет индекс целиком.
+     * Изменения, пришедшие во время перестроения, доигрываются поверх нового индекса.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings rebuilt = new Postings();
+        try {
+            Pageable page = PageRequest.of(0, REBUILD_BATCH, Sort.by("id"));
+            Slice<Item> slice;
+            do {
+                slice = itemRepository.findByAvailableTrue(page);
+                slice.forEach(item -> rebuilt.apply(IndexedItem.of(item)));
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(rebuilt::apply);
+            pendingDuringRebuild = null;
+            postings = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей перестроен: {}", stats());
+    }
+
+    /**
+     * Учитывает сохранённую вещь. Внутри транзакции изменение применяется только после коммита,
+     * чтобы откат не оставил в индексе несуществующих данных. Версия вещи должна быть уже той,
+     * с которой она будет закоммичена, то есть изменения сброшены в БД.
+     */
+    public void onItemSaved(Item item) {
+        onItemsSaved(List.of(item));
+    }
+
+    /**
+     * То же для пачки вещей: изменения применяются разом, под одним захватом блокировки индекса.
+     */
+    public void onItemsSaved(Collection<Item> items) {
+        applyAfterCommit(items.stream().map(IndexedItem::of).toList());
+    }
+
+    /**
+     * Убирает вещи, удалённые в БД, например каскадом вместе с владельцем. Как и сохранение,
+     * внутри транзакции применяется только после коммита.
+     */
+    public void onItemsDeleted(Collection<Long> itemIds) {
+        applyAfterCommit(itemIds.stream().map(IndexedItem::removed).toList());
+    }
+
+    public void remove(Long itemId) {
+        apply(IndexedItem.removed(itemId));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Проверяет, можно ли ответить на запрос из индекса. Символы % и _ в LIKE работают как шаблоны,
+     * поэтому такие запросы остаются за БД.
+     */
+    public boolean supports(String text) {
+        return ready && text.indexOf('%') < 0 && text.indexOf('_') < 0 && text.indexOf('\\') < 0;
+    }
+
+    /**
+     * Страница идентификаторов доступных вещей, в названии или описании которых встречается text,
+     * в порядке релевантности. Из совпадений отбираются только from + size лучших, поэтому
+     * память и сортировка зависят от размера страницы, а не от числа совпадений.
+     */
+    public List<Long> search(String text, int from, int size) {
+        String query = normalize(text);
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        List<Long> top;
+        lock.readLock().lock();
+        try {
+            top = postings.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.subList(Math.min(from, top.size()), top.size());
+    }
+
+    /**
+     * До limit слов из названий доступных вещей, начинающихся с prefix, в нижнем регистре:
+     * сначала слова, встречающиеся в названиях большего числа вещей.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String query = normalize(prefix);
+        List<String> tokens;
+        lock.readLock().lock();
+        try {
+            tokens = postings.names.suggest(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tokens.stream().map(token -> token.toLowerCase(Locale.ROOT)).toList();
+    }
+
+    public ItemSearchIndexStats stats() {
+        lock.readLock().lock();
+        try {
+            return new ItemSearchIndexStats(ready, postings.items.size(), postings.grams.size(),
+                    postings.postingCount, postings.names.size(), postings.estimateBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyAfterCommit(List<IndexedItem> changes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+            });
+        } else {
+            apply(changes);
+        }
+    }
+
+    private void apply(IndexedItem change) {
+        apply(List.of(change));
+    }
+
+    private void apply(List<IndexedItem> changes) {
+        lock.writeLock().lock();
+        try {
+            changes.forEach(postings::apply);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Триграмма, упакованная в long: по 16 бит на символ.
+     */
+    static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * Снимок полей вещи, нужных для поиска. available = false означает удаление из индекса.
+     * Удалённая из БД вещь получает наибольшую версию, чтобы запоздавший снимок её не вернул.
+     */
+    private static final class IndexedItem {
+        static final long DELETED = Long.MAX_VALUE;
+
+        final Long id;
+        final long version;
+        final boolean available;
+        final String name;
+        final String description;
+
+        private IndexedItem(Long id, long version, boolean available, String name, String description) {
+            this.id = id;
+            this.version = version;
+            this.available = available;
+            this.name = name;
+            this.description = description;
+        }
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(), item.getVersion() == null ? 0 : item.getVersion(),
+                    Boolean.TRUE.equals(item.getAvailable()), normalize(item.getName()),
+                    normalize(item.getDescription()));
+        }
+
+        static IndexedItem removed(Long id) {
+            return new IndexedItem(id, DELETED, false, "", "");
+        }
+
+        /**
+         * Релевантность вещи запросу; 0 — не совпадает. Любое совпадение в названии весит больше,
+         * чем лучшее совпадение в описании.
+         */
+        int score(String query) {
+            return score(name, query, NAME_TOKEN, NAME_SUBSTRING)
+                    + score(description, query, DESCRIPTION_TOKEN, DESCRIPTION_SUBSTRING);
+        }
+
+        private static int score(String text, String query, int token, int substring) {
+            int found = text.indexOf(query);
+            if (found < 0) {
+                return 0;
+            }
+            for (; found >= 0; found = text.indexOf(query, found + 1)) {
+                if (isBoundary(text, found - 1) && isBoundary(text, found + query.length())) {
+                    return token;
+                }
+            }
+            return substring;
+        }
+
+        private static boolean isBoundary(String text, int index) {
+            return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+        }
+
+        /**
+         * Различные слова названия: части между символами, не являющимися буквами или цифрами.
+         */
+        Set<String> nameTokens() {
+            Set<String> tokens = new HashSet<>();
+            int start = -1;
+            for (int i = 0; i <= name.length(); i++) {
+                boolean letter = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+                if (letter && start < 0) {
+                    start = i;
+                } else if (!letter && start >= 0) {
+                    tokens.add(name.substring(start, i));
+                    start = -1;
+                }
+            }
+            return tokens;
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = new HashSet<>();
+            addGrams(name, grams);
+            addGrams(description, grams);
+            return grams;
+        }
+
+        private static void addGrams(String text, Set<Long> grams) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                grams.add(gram(text, i));
+            }
+        }
+    }
+
+    private record Ranked(long id, int score) {
+        static final Comparator<Ranked> BEST_FIRST = Comparator.comparingInt(Ranked::score).reversed()
+                .thenComparingLong(Ranked::id);
+
+        static boolean isBetter(long id, int score, Ranked than) {
+            return score > than.score() || score == than.score() && id < than.id();
+        }
+    }
+
+    /**
+     * Сами структуры индекса; доступ к ним только под блокировкой {@link ItemSearchIndex#lock}.
+     */
+    private static final class Postings {
+        final Map<Long, IndexedItem> items = new HashMap<>();
+        final Map<Long, Long> versions = new HashMap<>();
+        final Map<Long, Set<Long>> grams = new HashMap<>();
+        final NameTrie names = new NameTrie();
+        long postingCount;
+
+        /**
+         * Применяет снимок, если он не старше учтённого: versions помнит версию и недоступных
+         * и удалённых вещей, которых нет в items.
+         */
+        void apply(IndexedItem change) {
+            Long applied = versions.get(change.id);
+            if (applied != null && applied > change.version) {
+                return;
+            }
+            versions.put(change.id, change.version);
+            if (change.available) {
+                put(change);
+            } else {
+                delete(change.id);
+            }
+        }
+
+        void put(IndexedItem item) {
+            IndexedItem previous = items.get(item.id);
+            if (previous != null) {
+                if (previous.name.equals(item.name) && previous.description.equals(item.description)) {
+                    return;
+                }
+                delete(item.id);
+            }
+            items.put(item.id, item);
+            item.nameTokens().forEach(names::add);
+            for (Long gram : item.grams()) {
+                if (grams.computeIfAbsent(gram, g -> new HashSet<>()).add(item.id)) {
+                    postingCount++;
+                }
+            }
+        }
+
+        void delete(Long id) {
+            IndexedItem previous = items.remove(id);
+            if (previous == null) {
+                return;
+            }
+            previous.nameTokens().forEach(names::remove);
+            for (Long gram : previous.grams()) {
+                Set<Long> ids = grams.get(gram);
+                if (ids != null && ids.remove(id)) {
+                    postingCount--;
+                    if (ids.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+
+        /**
+         * До limit лучших совпадений, от лучшего к худшему. Кандидаты проходят через кучу размером limit,
+         * в вершине которой худший из отобранных: кандидат не лучше вершины отбрасывается сразу.
+         */
+        List<Long> search(String query, int limit) {
+            Collection<Long> candidates = items.keySet();
+            if (query.length() >= GRAM) {
+                List<Set<Long>> lists = new ArrayList<>();
+                for (int i = 0; i + GRAM <= query.length(); i++) {
+                    Set<Long> ids = grams.get(gram(query, i));
+                    if (ids == null) {
+                        return Collections.emptyList();
+                    }
+                    lists.add(ids);
+                }
+                lists.sort(Comparator.comparingInt(Set::size));
+                candidates = lists.get(0);
+            }
+            PriorityQueue<Ranked> top = new PriorityQueue<>(Ranked.BEST_FIRST.reversed());
+            for (Long id : candidates) {
+                int score = items.get(id).score(query);
+                if (score == 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new Ranked(id, score));
+                } else if (Ranked.isBetter(id, score, top.peek())) {
+                    top.poll();
+                    top.add(new Ranked(id, score));
+                }
+            }
+            List<Ranked> ranked = new ArrayList<>(top);
+            ranked.sort(Ranked.BEST_FIRST);
+            List<Long> result = new ArrayList<>(ranked.size());
+            ranked.forEach(r -> result.add(r.id()));
+            return result;
+        }
+
+        /**
+         * Грубая оценка занимаемой памяти (64-битная JVM со сжатыми ссылками):
+         * заголовки объектов, узлы HashMap, упакованные Long и строки в UTF-16.
+         */
+        long estimateBytes() {
+            long bytes = names.estimateBytes();
+            for (IndexedItem item : items.values()) {
+                bytes += 32 + 16 + 32;
+                bytes += 40 + 2L * item.name.length();
+                bytes += 40 + 2L * item.description.length();
+            }
+            bytes += (long) versions.size() * (32 + 16 + 24);
+            bytes += (long) grams.size() * (32 + 16 + 48 + 16);
+            bytes += postingCount * (32 + 16);
+            bytes += 4L * (items.size() + versions.size() + grams.size() + postingCount);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-эндпоинт /actuator/itemsearch: размер индекса поиска. По HTTP только чтение: actuator открыт без
+ * авторизации, а перестроение держит блокировку записи индекса. Перестроить индекс по требованию можно
+ * через JMX, см. {@link ItemSearchIndexJmxExtension}.
+ */
+@Component
+@Endpoint(id = "itemsearch")
+@RequiredArgsConstructor
+public class ItemSearchIndexEndpoint {
+    private final ItemSearchIndex itemSearchIndex;
+
+    @ReadOperation
+    public ItemSearchIndexStats stats() {
+        return itemSearchIndex.stats();
+    }
+}
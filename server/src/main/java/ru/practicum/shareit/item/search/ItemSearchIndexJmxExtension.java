@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.EndpointJmxExtension;
+import org.springframework.stereotype.Component;
+
+/**
+ * Перестроение индекса поиска по требованию — операция rebuild MBean-а эндпоинта itemsearch.
+ * Доступна только через JMX, то есть администратору с доступом к JVM; по HTTP эндпоинт только читается.
+ */
+@Component
+@EndpointJmxExtension(endpoint = ItemSearchIndexEndpoint.class)
+@RequiredArgsConstructor
+public class ItemSearchIndexJmxExtension {
+    private final ItemSearchIndex itemSearchIndex;
+
+    @WriteOperation
+    public ItemSearchIndexStats rebuild() {
+        itemSearchIndex.rebuild();
+        return itemSearchIndex.stats();
+    }
+}
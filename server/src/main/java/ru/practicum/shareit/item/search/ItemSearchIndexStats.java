@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Состояние индекса поиска вещей для мониторинга.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSearchIndexStats {
+    private final boolean ready;
+    private final int items;
+    private final int trigrams;
+    private final long postings;
+    private final int nameTokens;
+    private final long estimatedBytes;
+}
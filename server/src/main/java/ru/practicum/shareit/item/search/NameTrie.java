@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Сжатое префиксное дерево (radix trie) слов из названий вещей со счётчиком вещей на каждое слово.
+ * Цепочки узлов с одним потомком склеены в одну дугу со строковой меткой, потомки узла хранятся
+ * в массиве, упорядоченном по первому символу метки, — без отдельной хеш-таблицы на узел.
+ * В каждом узле хранится наибольший счётчик в его поддереве, поэтому самые частые продолжения
+ * префикса находятся обходом «сначала лучшие» без просмотра всего поддерева.
+ * Не потокобезопасно, синхронизация на стороне {@link ItemSearchIndex}.
+ */
+class NameTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private int tokens;
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        int count;
+        int best;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Candidate(Node node, String text, boolean terminal) {
+        static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt(Candidate::score).reversed()
+                .thenComparing(Candidate::text);
+
+        int score() {
+            return terminal ? node.count : node.best;
+        }
+    }
+
+    void add(String token) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            int index = find(node, rest.charAt(0));
+            if (index < 0) {
+                Node leaf = new Node(rest);
+                insert(node, -index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                middle.best = child.best;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            rest = rest.substring(common);
+        }
+        if (node.count++ == 0) {
+            tokens++;
+        }
+        updateBest(path);
+    }
+
+    void remove(String token) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            int index = find(node, rest.charAt(0));
+            if (index < 0 || !rest.startsWith(node.children[index].label)) {
+                return;
+            }
+            node = node.children[index];
+            path.add(node);
+            rest = rest.substring(node.label.length());
+        }
+        if (node.count == 0) {
+            return;
+        }
+        if (--node.count == 0) {
+            tokens--;
+            compact(path);
+        }
+        updateBest(path);
+    }
+
+    /**
+     * До limit слов, начинающихся с prefix, по убыванию числа вещей, при равенстве — по алфавиту.
+     */
+    List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        String matched = "";
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            int index = find(node, rest.charAt(0));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            if (child.label.startsWith(rest)) {
+                matched += child.label;
+                node = child;
+                break;
+            }
+            if (!rest.startsWith(child.label)) {
+                return List.of();
+            }
+            matched += child.label;
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.BEST_FIRST);
+        if (node.best > 0) {
+            queue.add(new Candidate(node, matched, false));
+        }
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.terminal()) {
+                result.add(candidate.text());
+                continue;
+            }
+            Node current = candidate.node();
+            if (current.count > 0) {
+                queue.add(new Candidate(current, candidate.text(), true));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(child, candidate.text() + child.label, false));
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return tokens;
+    }
+
+    /**
+     * Грубая оценка памяти узлов, меток и массивов потомков, в тех же допущениях,
+     * что и {@link ItemSearchIndex#stats()}.
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        List<Node> stack = new ArrayList<>(List.of(root));
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            bytes += 32 + 40 + 2L * node.label.length();
+            if (node.children.length > 0) {
+                bytes += 16 + 4L * node.children.length;
+            }
+            stack.addAll(Arrays.asList(node.children));
+        }
+        return bytes;
+    }
+
+    /**
+     * После того как слово в конце пути перестало встречаться: лист без слова удаляется,
+     * а узел без слова с единственным потомком склеивается с ним, чтобы дерево оставалось сжатым.
+     */
+    private static void compact(List<Node> path) {
+        int last = path.size() - 1;
+        Node node = path.get(last);
+        Node parent = path.get(last - 1);
+        if (node.children.length == 0) {
+            remove(parent, node);
+            path.remove(last);
+            if (parent != path.get(0) && parent.count == 0 && parent.children.length == 1) {
+                merge(parent);
+            }
+        } else if (node.children.length == 1) {
+            merge(node);
+        }
+    }
+
+    private static void merge(Node node) {
+        Node child = node.children[0];
+        node.label += child.label;
+        node.children = child.children;
+        node.count = child.count;
+        node.best = child.best;
+    }
+
+    private static void updateBest(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            int best = node.count;
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+        }
+    }
+
+    private static int find(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = node.children[middle].label.charAt(0);
+            if (c < first) {
+                low = middle + 1;
+            } else if (c > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private static void insert(Node parent, int index, Node child) {
+        Node[] children = new Node[parent.children.length + 1];
+        System.arraycopy(parent.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(parent.children, index, children, index + 1, parent.children.length - index);
+        parent.children = children;
+    }
+
+    private static void remove(Node parent, Node child) {
+        Node[] children = parent.children;
+        int index = Arrays.asList(children).indexOf(child);
+        Node[] remaining = new Node[children.length - 1];
+        System.arraycopy(children, 0, remaining, 0, index);
+        System.arraycopy(children, index + 1, remaining, index, remaining.length - index);
+        parent.children = remaining.length == 0 ? NO_CHILDREN : remaining;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -1,11 +1,23 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentsVersionView;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -16,22 +28,36 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemResponseMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("shareit.service")
 public class ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingScheduleIndex bookingScheduleIndex;
+    private final BatchImporter batchImporter;
+    private final EntityManager entityManager;
 
     @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
@@ -40,9 +66,30 @@ public class ItemService {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(owner);
         Item saved = itemRepository.save(item);
+        itemSearchIndex.onItemSaved(saved);
         return ItemMapper.toItemDto(saved);
     }
 
+    /**
+     * Пакетное создание вещей одного владельца. Владелец проверяется один раз на весь пакет.
+     */
+    @Transactional
+    public BatchResultDto<ItemDto> createBatch(Long userId, List<ItemDto> items) {
+        batchImporter.checkSize(items);
+        User owner = userService.getUserById(userId);
+        return batchImporter.run(items, itemDto -> {
+            validateItemDto(itemDto);
+            Item item = ItemMapper.toItem(itemDto);
+            item.setId(null);
+            item.setOwner(owner);
+            return item;
+        }, entities -> {
+            List<Item> saved = itemRepository.saveAll(entities);
+            itemSearchIndex.onItemsSaved(saved);
+            return saved.stream().map(ItemMapper::toItemDto).toList();
+        });
+    }
+
     @Transactional
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
         Item item = itemRepository.findById(itemId)
@@ -59,7 +106,10 @@ public class ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        // Сброс в БД увеличивает @Version: по ней индекс поиска отличает этот снимок от более старых.
+        Item saved = itemRepository.saveAndFlush(item);
+        itemSearchIndex.onItemSaved(saved);
+        return ItemMapper.toItemDto(saved);
     }
 
     @Transactional(readOnly = true)
@@ -69,22 +119,146 @@ public class ItemService {
         return ItemResponseMapper.toItemResponseDto(item, bookingRepository, commentRepository, isOwner);
     }
 
+    /**
+     * Строгий ETag ответа {@link #getByIdWithBookingsAndComments} без сборки самого ответа: версия вещи
+     * (из кэша второго уровня), сводка версий комментариев и, для владельца, версии последнего и следующего
+     * бронирований.
+     */
+    @Transactional(readOnly = true)
+    public String getETag(Long itemId, Long userId) {
+        Item item = getItemById(itemId);
+        CommentsVersionView comments = commentRepository.findVersionByItemId(itemId);
+        StringBuilder tag = new StringBuilder("i").append(itemId).append('.').append(item.getVersion())
+                .append("-c").append(comments.getCount()).append('.').append(comments.getMaxId())
+                .append('.').append(comments.getVersionSum());
+        if (userId != null && item.getOwner().getId().equals(userId)) {
+            PageRequest first = PageRequest.of(0, 1);
+            tag.append("-l").append(bookingTag(bookingRepository.findLastBookingVersionsByItemId(itemId, first)))
+                    .append("-n").append(bookingTag(bookingRepository.findNextBookingVersionsByItemId(itemId, first)));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Страница вещей владельца с последним/следующим бронированием и комментариями.
+     * Связанные данные подгружаются для всей страницы разом, поэтому число запросов не зависит от числа вещей.
+     */
     @Transactional(readOnly = true)
-    public List<ItemResponseDto> getOwnerItemsWithBookingsAndComments(Long userId) {
+    public List<ItemResponseDto> getOwnerItemsWithBookingsAndComments(Long userId, int from, int size) {
         userService.getUserById(userId);
-        return itemRepository.findByOwner_IdOrderById(userId).stream()
-                .map(item -> ItemResponseMapper.toItemResponseDto(item, bookingRepository, commentRepository, true))
+        List<Item> items = itemRepository.findByOwner_Id(userId, new OffsetPageRequest(from, size, Sort.by("id")));
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, Booking> lastBookings = firstByItemId(bookingRepository.findLastBookingsByItemIds(itemIds));
+        Map<Long, Booking> nextBookings = firstByItemId(bookingRepository.findNextBookingsByItemIds(itemIds));
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> ItemResponseMapper.toItemResponseDto(
+                        item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.get(item.getId())))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Все вещи владельца в порядке id. Читаются курсором, сущности отсоединяются пачками
+     * по EXPORT_FETCH_SIZE, так что память не зависит от числа вещей.
+     */
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
+    public void exportByOwner(Long userId, Consumer<? super ItemDto> sink) {
+        userService.getUserById(userId);
+        try (Stream<Item> items = itemRepository.streamByOwner(userId)) {
+            Iterator<Item> rows = items.iterator();
+            for (int read = 1; rows.hasNext(); read++) {
+                sink.accept(ItemMapper.toItemDto(rows.next()));
+                if (read % ItemRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Страница поиска доступных вещей по вхождению текста в название или описание, по релевантности.
+     * Совпадения и их порядок берутся из {@link ItemSearchIndex}; БД лишь подгружает вещи страницы по id
+     * и остаётся запасным путём, пока индекс не готов или запрос содержит шаблонные символы LIKE.
+     * Если индекс отстал от БД и часть id страницы уже удалена или недоступна, такие вещи исправляются
+     * в индексе, а страница добирается следующими по рангу id, пока не заполнится или совпадения не кончатся.
+     */
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String text, int from, int size) {
+        OffsetPageRequest page = new OffsetPageRequest(from, size, null);
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        if (!itemSearchIndex.supports(text)) {
+            return itemRepository.search(text, page).stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
+        List<ItemDto> result = new ArrayList<>();
+        int next = from;
+        int wanted = size;
+        while (wanted > 0) {
+            List<Long> ids = itemSearchIndex.search(text, next, wanted);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Long, Item> found = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Long id : ids) {
+                Item item = found.get(id);
+                if (item == null) {
+                    // Удаление применяется к индексу сразу, и следующие id сдвигаются на его место.
+                    itemSearchIndex.remove(id);
+                    next--;
+                } else if (Boolean.TRUE.equals(item.getAvailable())) {
+                    result.add(ItemMapper.toItemDto(item));
+                } else {
+                    itemSearchIndex.onItemSaved(item);
+                }
+            }
+            if (ids.size() < wanted) {
+                break;
+            }
+            next += ids.size();
+            wanted = size - result.size();
+        }
+        return result;
+    }
+
+    /**
+     * Подсказки для поиска по мере ввода: до size слов из названий доступных вещей, начинающихся с prefix.
+     * Отвечает только {@link ItemSearchIndex}, без транзакции и обращения к БД; пока индекс строится
+     * после старта, подсказок нет.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggest(String prefix, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Параметр size должен быть положительным");
+        }
+        if (prefix == null || prefix.isBlank() || !itemSearchIndex.isReady()) {
+            return Collections.emptyList();
+        }
+        return itemSearchIndex.suggest(prefix.strip(), size);
+    }
+
+    /**
+     * Свободные промежутки вещи в окне [from, to) с учётом ожидающих и подтверждённых бронирований.
+     */
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Начало окна должно быть раньше его конца");
+        }
+        Item item = getItemById(itemId);
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return Collections.emptyList();
+        }
+        return bookingScheduleIndex.getFreeSlots(itemId, from, to);
     }
 
     @Transactional
@@ -111,6 +285,23 @@ public class ItemService {
                 .orElseThrow(() -> new NotFoundException("Вещь с ID " + id + " не найдена"));
     }
 
+    /**
+     * Вещи по набору id; отсутствующих в результате нет.
+     */
+    public Map<Long, Item> getItemsById(Collection<Long> ids) {
+        return itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+
+    private static String bookingTag(List<BookingVersionView> bookings) {
+        return bookings.isEmpty() ? "0" : bookings.get(0).getId() + "." + bookings.get(0).getVersion();
+    }
+
+    private Map<Long, Booking> firstByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity(), (first, second) -> first));
+    }
+
     private void validateItemDto(ItemDto itemDto) {
         if (itemDto == null) {
             throw new ValidationException("Данные вещи не могут быть null");
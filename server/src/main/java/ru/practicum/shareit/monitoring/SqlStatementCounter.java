@@ -0,0 +1,48 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Считает SQL-операторы, которые Hibernate готовит в текущем потоке. Подключается к фабрике сессий
+ * как StatementInspector; счёт ведётся только между {@link #start()} и {@link #stop()}, вне этого
+ * окна операторы пропускаются без учёта. JdbcTemplate и прочий JDBC в обход Hibernate не видны.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Начинает счёт в текущем потоке с нуля.
+     */
+    public void start() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * Заканчивает счёт в текущем потоке и возвращает число операторов с момента start().
+     */
+    public int stop() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+}
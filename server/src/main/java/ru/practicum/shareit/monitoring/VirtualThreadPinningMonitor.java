@@ -0,0 +1,110 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Следит за событиями JFR jdk.VirtualThreadPinned: виртуальный поток заблокировался, не отпустив
+ * поток-носитель (внутри synchronized, в нативном вызове драйвера и т.п.). Каждое событие длиннее порога
+ * пишется в лог со стеком и учитывается в таймере shareit.virtual-threads.pinned с тегом site —
+ * первым кадром кода ShareIt в стеке, а если его нет, верхним кадром вне JDK.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    static final String METRIC = "shareit.virtual-threads.pinned";
+    private static final String APP_PACKAGE = "ru.practicum.shareit.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${shareit.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::report);
+        stream.startAsync();
+        log.info("Отслеживание закрепления виртуальных потоков включено, порог {}", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null
+                ? List.of()
+                : event.getStackTrace().getFrames();
+        String site = site(frames);
+        Timer.builder(METRIC)
+                .description("Время, на которое виртуальный поток закрепил поток-носитель")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        log.warn("Виртуальный поток {} закрепил носитель на {} мс в {}:\n{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), site, format(event.getStackTrace()));
+    }
+
+    static String site(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::frameName)
+                .filter(name -> name.startsWith(APP_PACKAGE))
+                .findFirst()
+                .or(() -> frames.stream()
+                        .filter(RecordedFrame::isJavaFrame)
+                        .map(VirtualThreadPinningMonitor::frameName)
+                        .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.")
+                                && !name.startsWith("sun."))
+                        .findFirst())
+                .orElse("unknown");
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(стек недоступен)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frameName(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
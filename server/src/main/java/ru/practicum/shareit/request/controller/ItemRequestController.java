@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/requests")
+@RequiredArgsConstructor
+public class ItemRequestController {
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestResponseDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestBody ItemRequestDto requestDto) {
+        return itemRequestService.create(userId, requestDto.getDescription());
+    }
+
+    @GetMapping
+    public List<ItemRequestResponseDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestService.getOwnRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestResponseDto>> getAllOtherRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        List<ItemRequestResponseDto> page = itemRequestService.getAllOtherRequests(userId, from, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        KeysetCursor.next(page, size, ItemRequestResponseDto::getCreated, ItemRequestResponseDto::getId)
+                .ifPresent(next -> response.header(KeysetCursor.HEADER, next));
+        return response.body(page);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestResponseDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long requestId) {
+        return itemRequestService.getRequestById(requestId);
+    }
+}
@@ -2,12 +2,23 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestor_IdOrderByCreatedDesc(Long requestorId);
-    List<ItemRequest> findByIdNotInOrderByCreatedDesc(List<Long> ids, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Чужие запросы после позиции (created, id) в порядке (created DESC, id DESC).
+     * Стоимость не зависит от того, сколько запросов создал сам пользователь.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOthersAfterCursor(Long userId, LocalDateTime created, Long id, Pageable pageable);
+}
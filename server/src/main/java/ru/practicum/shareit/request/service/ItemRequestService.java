@@ -6,6 +6,6 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequestResponseDto create(Long userId, String description);
     List<ItemRequestResponseDto> getOwnRequests(Long userId);
-    List<ItemRequestResponseDto> getAllOtherRequests(Long userId, int from, int size);
+    List<ItemRequestResponseDto> getAllOtherRequests(Long userId, int from, int size, String cursor);
     ItemRequestResponseDto getRequestById(Long requestId);
 }
\ No newline at end of file
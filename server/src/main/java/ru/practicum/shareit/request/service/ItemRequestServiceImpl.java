@@ -1,28 +1,35 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
@@ -32,11 +39,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestResponseDto create(Long userId, String description) {
-        userService.getUserById(userId);
+        User requestor = userService.getUserById(userId);
         ItemRequest request = new ItemRequest();
         request.setDescription(description);
-        request.setRequestor(userService.getUserById(userId));
-        request.setCreated(LocalDateTime.now());
+        request.setRequestor(requestor);
+        // Точность столбца created — микросекунды; иначе курсор из кэшированной сущности разойдётся с БД.
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         ItemRequest saved = itemRequestRepository.save(request);
         return ItemRequestMapper.toItemRequestResponseDto(saved, Collections.emptyList());
     }
@@ -44,40 +52,47 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestResponseDto> getOwnRequests(Long userId) {
         userService.getUserById(userId);
-        List<ItemRequest> requests = itemRequestRepository.findByRequestor_IdOrderByCreatedDesc(userId);
-        return requests.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return mapToResponseDtos(itemRequestRepository.findByRequestor_IdOrderByCreatedDesc(userId));
     }
 
+    /**
+     * Чужие запросы, новые первыми. Если передан cursor, страница начинается сразу после него,
+     * а from игнорируется; иначе пропускается from строк.
+     */
     @Override
-    public List<ItemRequestResponseDto> getAllOtherRequests(Long userId, int from, int size) {
+    public List<ItemRequestResponseDto> getAllOtherRequests(Long userId, int from, int size, String cursor) {
         userService.getUserById(userId);
-        List<ItemRequest> ownRequests = itemRequestRepository.findByRequestor_IdOrderByCreatedDesc(userId);
-        List<Long> ownIds = ownRequests.stream().map(ItemRequest::getId).toList();
-
-        PageRequest page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
-
-        List<ItemRequest> others = ownIds.isEmpty()
-                ? itemRequestRepository.findAll(page).getContent()
-                : itemRequestRepository.findByIdNotInOrderByCreatedDesc(ownIds, page);
-
-        return others.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        OffsetPageRequest page = new OffsetPageRequest(cursor == null || cursor.isBlank() ? from : 0, size,
+                Sort.unsorted());
+        return mapToResponseDtos(
+                itemRequestRepository.findOthersAfterCursor(userId, position.getTime(), position.getId(), page));
     }
 
     @Override
     public ItemRequestResponseDto getRequestById(Long requestId) {
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с ID " + requestId + " не найден"));
-        return mapToResponseDto(request);
-    }
-
-    private ItemRequestResponseDto mapToResponseDto(ItemRequest request) {
-        List<ItemDto> items = itemRepository.findByRequest(request.getId()).stream()
+        List<ItemDto> items = itemRepository.findByRequest(requestId).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
         return ItemRequestMapper.toItemRequestResponseDto(request, items);
     }
+
+    /**
+     * Вещи для всех запросов страницы загружаются одним запросом request_id IN (...).
+     */
+    private List<ItemRequestResponseDto> mapToResponseDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findByRequestIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequest,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestResponseDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -17,6 +20,11 @@ public class UserController {
         return userService.create(userDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto<UserDto> createBatch(@RequestBody List<UserDto> users) {
+        return userService.createBatch(users);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable Long userId, @RequestBody UserDto userDto) {
         userDto.setId(userId);
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailIgnoreCase(String email);
     Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN ?1")
+    List<String> findLowerCaseEmailsIn(Collection<String> lowerCaseEmails);
 }
\ No newline at end of file
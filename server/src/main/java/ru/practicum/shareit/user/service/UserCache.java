@@ -0,0 +1,99 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей по id перед {@code UserRepository.findById}, ограниченный по размеру и времени жизни.
+ * Хранит отсоединённые снимки и каждый раз отдаёт копию, чтобы изменения одного вызывающего
+ * не попали в кэш. Метрики попаданий, промахов и вытеснений публикуются как cache.* с тегом cache=users.
+ */
+@Component
+public class UserCache {
+    static final String NAME = "users";
+    private static final int STAMP_STRIPES = 64;
+
+    private final Cache<Long, User> cache;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public UserCache(@Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.cache.users.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Пользователь загружается вне атомарного вычисления кэша, как деревья в
+     * {@link ru.practicum.shareit.booking.schedule.BookingScheduleIndex}. Если за время загрузки
+     * {@link #evict} сдвинул отметку пользователя, загруженная строка могла устареть — тогда она
+     * убирается из кэша, и следующее обращение снова идёт в БД.
+     */
+    public Optional<User> get(Long userId, Function<Long, Optional<User>> loader) {
+        User cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        int stripe = stripe(userId);
+        long stamp = stamps.get(stripe);
+        Optional<User> loaded = loader.apply(userId);
+        if (loaded.isPresent()) {
+            User stored = copy(loaded.get());
+            cache.put(userId, stored);
+            if (stamps.get(stripe) != stamp) {
+                cache.asMap().remove(userId, stored);
+            }
+        }
+        return loaded.map(UserCache::copy);
+    }
+
+    /**
+     * Удаляет пользователя из кэша сразу и ещё раз по завершении транзакции: иначе параллельный
+     * запрос успел бы положить туда незафиксированное или уже устаревшее значение.
+     */
+    public void evict(Long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private void invalidate(Long userId) {
+        stamps.incrementAndGet(stripe(userId));
+        cache.invalidate(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STAMP_STRIPES - 1);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+}
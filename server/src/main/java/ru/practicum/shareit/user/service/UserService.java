@@ -1,16 +1,36 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -19,8 +39,17 @@ import java.util.regex.Pattern;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("shareit.service")
 public class UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BatchImporter batchImporter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int BATCH_ATTEMPTS = 3;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
             "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
@@ -37,9 +66,53 @@ public class UserService {
         return UserMapper.toUserDto(savedUser);
     }
 
+    /**
+     * Пакетное создание пользователей. Занятые email ищутся одним запросом на весь пакет;
+     * из строк с одинаковым email принимается только первая. Если параллельный запрос занял email
+     * между поиском и коммитом, уникальный индекс отклоняет весь пакет — тогда пакет повторяется
+     * в новой транзакции, и при новом поиске такая строка получает 409, как и прочие занятые email.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BatchResultDto<UserDto> createBatch(List<UserDto> users) {
+        batchImporter.checkSize(users);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> importBatch(users));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == BATCH_ATTEMPTS) {
+                    throw new ConflictException("Email из пакета одновременно заняты другими запросами, повторите попытку");
+                }
+            }
+        }
+    }
+
+    private BatchResultDto<UserDto> importBatch(List<UserDto> users) {
+        List<String> emails = users.stream()
+                .filter(Objects::nonNull)
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        Set<String> taken = new HashSet<>();
+        if (!emails.isEmpty()) {
+            taken.addAll(userRepository.findLowerCaseEmailsIn(emails));
+        }
+        return batchImporter.run(users, userDto -> {
+            validateUser(userDto);
+            if (!taken.add(userDto.getEmail().toLowerCase(Locale.ROOT))) {
+                throw new ConflictException("Пользователь с email " + userDto.getEmail() + " уже существует");
+            }
+            User user = UserMapper.toUser(userDto);
+            user.setId(null);
+            return user;
+        }, entities -> userRepository.saveAll(entities).stream().map(UserMapper::toUserDto).toList());
+    }
+
     @Transactional
     public UserDto update(Long userId, UserDto userDto) {
-        User user = getUserById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден"));
         String newEmail = userDto.getEmail();
         String newName = userDto.getName();
 
@@ -54,7 +127,9 @@ public class UserService {
         if (newName != null) {
             user.setName(newName);
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        User saved = userRepository.save(user);
+        userCache.evict(userId);
+        return UserMapper.toUserDto(saved);
     }
 
     public UserDto getById(Long userId) {
@@ -62,16 +137,45 @@ public class UserService {
         return UserMapper.toUserDto(user);
     }
 
+    /**
+     * Вещи и запросы пользователя удаляет каскад ON DELETE CASCADE в БД, мимо Hibernate, поэтому
+     * их регионы кэша второго уровня и кэш запросов сбрасываются вручную — сразу и ещё раз
+     * по завершении транзакции, как в {@link UserCache#evict}. Вещи пользователя убираются
+     * из индекса поиска после коммита.
+     */
     @Transactional
     public void delete(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwner(userId);
         userRepository.deleteById(userId);
+        itemSearchIndex.onItemsDeleted(itemIds);
+        userCache.evict(userId);
+        evictCascadedEntities();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictCascadedEntities();
+                }
+            });
+        }
     }
 
+    /**
+     * Пользователь по id через {@link UserCache}. Возвращает отсоединённую копию:
+     * её можно ставить в связи сохраняемых сущностей, но изменения в ней не сохраняются.
+     */
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.get(userId, userRepository::findById)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден"));
     }
 
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Item.class);
+        cache.evict(ItemRequest.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
     private void validateUser(UserDto userDto) {
         if (userDto == null) {
             throw new ValidationException("Данные пользователя не могут быть null");
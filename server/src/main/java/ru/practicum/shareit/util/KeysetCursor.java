@@ -0,0 +1,69 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Позиция в списке, отсортированном по (время DESC, id DESC): бронирования по start, запросы по created.
+ * Клиент получает её в заголовке X-Next-Cursor и передаёт обратно параметром cursor.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class KeysetCursor {
+    public static final String HEADER = "X-Next-Cursor";
+
+    /**
+     * Позиция «до первой строки»: любое реальное время и id меньше неё.
+     */
+    public static final KeysetCursor FIRST =
+            new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Курсор следующей страницы по последней строке; пусто, если страница неполная и дальше строк нет.
+     */
+    public static <T> Optional<String> next(List<T> page, int size,
+                                            Function<T, LocalDateTime> time, Function<T, Long> id) {
+        if (page.isEmpty() || page.size() < size) {
+            return Optional.empty();
+        }
+        T last = page.get(page.size() - 1);
+        return Optional.of(new KeysetCursor(time.apply(last), id.apply(last)).encode());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Пишет объекты в тело ответа как NDJSON: один JSON в строке. Строки копятся только в буфере
+ * контейнера и уходят клиенту по мере его заполнения, без сборки всего ответа в памяти.
+ * Заголовки выставляются при первой строке: если выгрузка упала раньше, ErrorHandler ещё может
+ * ответить обычной ошибкой в JSON.
+ */
+public class NdjsonWriter implements Consumer<Object> {
+    private final ObjectWriter writer;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+    }
+
+    @Override
+    public void accept(Object row) {
+        try {
+            JsonGenerator json = generator();
+            writer.writeValue(json, row);
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Дописывает буфер генератора; пустая выгрузка получает те же заголовки и пустое тело.
+     */
+    public void finish() throws IOException {
+        generator().flush();
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            generator = writer.getFactory().createGenerator(response.getOutputStream());
+            generator.setRootValueSeparator(null);
+        }
+        return generator;
+    }
+}
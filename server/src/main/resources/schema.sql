@@ -1,34 +1,44 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    name  VARCHAR(255)                            NOT NULL,
-    email VARCHAR(512)                            NOT NULL,
+    id      BIGINT                                  NOT NULL,
+    name    VARCHAR(255)                            NOT NULL,
+    email   VARCHAR(512)                            NOT NULL,
+    version BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT uq_user_email UNIQUE (email)
 );
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR(255)                            NOT NULL,
     description  VARCHAR(1000)                           NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
     owner_id     BIGINT                                  NOT NULL,
     request_id   BIGINT,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS ix_item_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_item_request ON items (request_id);
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT                                  NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     end_date   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     item_id    BIGINT                                  NOT NULL,
     booker_id  BIGINT                                  NOT NULL,
     status     VARCHAR(20)                             NOT NULL,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id)
 );
+CREATE INDEX IF NOT EXISTS ix_booking_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_booking_item_start ON bookings (item_id, start_date DESC, id DESC);
 CREATE TABLE IF NOT EXISTS comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -36,6 +46,7 @@ CREATE TABLE IF NOT EXISTS comments
     item_id   BIGINT                                  NOT NULL,
     author_id BIGINT                                  NOT NULL,
     created   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    version   BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
@@ -48,4 +59,5 @@ CREATE TABLE IF NOT EXISTS item_requests
     created      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     CONSTRAINT pk_item_request PRIMARY KEY (id),
     CONSTRAINT fk_requestor FOREIGN KEY (requestor_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+CREATE INDEX IF NOT EXISTS ix_item_request_created ON item_requests (created DESC, id DESC);
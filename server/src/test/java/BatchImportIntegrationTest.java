@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Запись с коммитом: индекс поиска обновляется только после коммита, а гонку за email
+ * выдаёт уникальный индекс при коммите, поэтому тест не транзакционный и чистит за собой.
+ * Контекст у теста свой из-за {@link SpyBean}, поэтому и база своя: всё в ней — его фикстура.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = "spring.datasource.url=jdbc:h2:mem:batch-import")
+public class BatchImportIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    private UserDto owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Importer", "importer@example.com"));
+    }
+
+    /**
+     * Пользователи удаляются через сервис, чтобы сбросить кэш пользователей и индекс поиска; вещи уходят каскадом.
+     */
+    @AfterEach
+    void tearDown() {
+        userRepository.findAll().forEach(user -> userService.delete(user.getId()));
+    }
+
+    @Test
+    void createItemBatch_shouldPersistValidRowsAndMakeThemSearchable() {
+        BatchResultDto<ItemDto> result = itemService.createBatch(owner.getId(), List.of(
+                new ItemDto(null, "Штатив напольный", "Алюминиевый", true, null),
+                new ItemDto(null, " ", "Без названия", true, null),
+                new ItemDto(null, "Штатив настольный", "Компактный", false, null),
+                new ItemDto(null, "Штатив без статуса", "Доступность не указана", null, null),
+                new ItemDto(99L, "Штатив с чужим id", "Id из запроса не используется", true, null)));
+
+        assertEquals(3, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(201, 400, 201, 400, 201),
+                result.getRows().stream().map(BatchResultDto.Row::getStatus).toList());
+        assertNotNull(result.getRows().get(1).getError());
+        assertNotNull(result.getRows().get(3).getError());
+        assertNull(result.getRows().get(0).getError());
+
+        List<Long> ids = new ArrayList<>();
+        for (BatchResultDto.Row<ItemDto> row : result.getRows()) {
+            if (row.getBody() != null) {
+                ids.add(row.getBody().getId());
+            }
+        }
+        assertEquals(3, new HashSet<>(ids).size());
+        assertFalse(ids.contains(99L));
+        for (Long id : ids) {
+            Item item = itemRepository.findById(id).orElseThrow();
+            assertEquals(owner.getId(), item.getOwner().getId());
+        }
+        assertEquals(List.of("Штатив напольный", "Штатив настольный", "Штатив с чужим id"),
+                ids.stream().map(id -> itemRepository.findById(id).orElseThrow().getName()).toList());
+
+        Set<Long> found = new HashSet<>(itemSearchIndex.search("штатив", 0, 10));
+        assertTrue(found.contains(ids.get(0)));
+        assertTrue(found.contains(ids.get(2)));
+        assertFalse(found.contains(ids.get(1)), "Недоступная вещь не ищется");
+    }
+
+    @Test
+    void deleteUser_shouldRemoveCascadedItemsFromSearchIndex() {
+        UserDto leaving = userService.create(new UserDto(null, "Leaving", "leaving@example.com"));
+        ItemDto item = itemService.create(leaving.getId(),
+                new ItemDto(null, "Штангенциркуль", "Цифровой", true, null));
+        assertEquals(List.of(item.getId()), itemSearchIndex.search("штангенциркуль", 0, 10));
+        assertEquals(List.of("штангенциркуль"), itemSearchIndex.suggest("штанг", 10));
+
+        userService.delete(leaving.getId());
+
+        assertTrue(itemSearchIndex.search("штангенциркуль", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.suggest("штанг", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldFillPageWhenIndexLagsBehindDatabase() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(itemService.create(owner.getId(), new ItemDto(null, "Фонарь " + i, "Налобный", true, null)).getId());
+        }
+        // Строки меняются мимо сервиса, поэтому индекс о них не знает.
+        itemRepository.deleteById(ids.get(0));
+        Item hidden = itemRepository.findById(ids.get(2)).orElseThrow();
+        hidden.setAvailable(false);
+        itemRepository.save(hidden);
+
+        assertEquals(List.of(ids.get(1), ids.get(3)),
+                itemService.search("фонарь", 0, 2).stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(ids.get(4)),
+                itemService.search("фонарь", 2, 2).stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)), itemSearchIndex.search("фонарь", 0, 10));
+    }
+
+    @Test
+    void createUserBatch_shouldReportEmailTakenConcurrentlyAsRowConflict() {
+        userService.create(new UserDto(null, "Raced", "raced@example.com"));
+        // Первый поиск не видит пользователя, как если бы его создали между поиском и коммитом пакета.
+        Answer<?> realLookup = mockingDetails(userRepository).getMockCreationSettings().getDefaultAnswer();
+        doReturn(List.of()).doAnswer(realLookup).when(userRepository).findLowerCaseEmailsIn(any());
+
+        BatchResultDto<UserDto> result = userService.createBatch(List.of(
+                new UserDto(null, "Fresh", "fresh@example.com"),
+                new UserDto(null, "Raced again", "raced@example.com"),
+                new UserDto(null, "Fresh twice", "FRESH@example.com")));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(201, 409, 409),
+                result.getRows().stream().map(BatchResultDto.Row::getStatus).toList());
+        verify(userRepository, times(2)).findLowerCaseEmailsIn(any());
+        assertEquals(1, userRepository.findAll().stream()
+                .filter(user -> user.getEmail().equalsIgnoreCase("fresh@example.com"))
+                .count());
+    }
+}
@@ -0,0 +1,225 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочная проверка: параллельные создания и подтверждения бронирований одной вещи
+ * не должны давать пересекающихся APPROVED-бронирований. Данные коммитятся, поэтому тест
+ * не транзакционный и чистит за собой.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    private UserDto owner;
+    private final List<UserDto> bookers = new ArrayList<>();
+    private final List<Long> createdUsers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser("stress-owner");
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(createUser("stress-booker-" + i));
+        }
+    }
+
+    /**
+     * Все бронирования теста — на вещи owner, поэтому первым удаляется он: каскад уносит его вещи
+     * с бронированиями, после чего удаляются арендаторы. Удаление идёт через сервис, чтобы сбросить кэши.
+     */
+    @AfterEach
+    void tearDown() {
+        createdUsers.forEach(userService::delete);
+    }
+
+    @Test
+    void concurrentCreateAndApprove_shouldNeverProduceOverlappingApprovedBookings() throws Exception {
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Палатка", "Четырёхместная", true, null));
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<BookingResponseDto> created = runConcurrently(THREADS, i -> bookingService.create(
+                bookers.get(i).getId(),
+                new BookingDto(null, base.plusHours(i % 4), base.plusHours(i % 4 + 3), item.getId())));
+        List<BookingResponseDto> approved = runConcurrently(created.size(),
+                i -> bookingService.approve(owner.getId(), created.get(i).getId(), true));
+
+        assertFalse(created.isEmpty());
+        assertFalse(approved.isEmpty());
+        List<Booking> approvedBookings = bookingRepository.findByItem_IdAndStatusIn(
+                item.getId(), List.of(BookingStatus.APPROVED));
+        for (Booking a : approvedBookings) {
+            for (Booking b : approvedBookings) {
+                if (!a.getId().equals(b.getId())) {
+                    assertFalse(a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd()),
+                            "Пересекаются подтверждённые бронирования " + a.getId() + " и " + b.getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void concurrentApproveAndReject_ofSameBooking_shouldLetExactlyOneWin() throws Exception {
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Лодка", "Надувная", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingResponseDto booking = bookingService.create(bookers.get(0).getId(),
+                new BookingDto(null, start, start.plusHours(2), item.getId()));
+        AtomicInteger alreadyProcessed = new AtomicInteger();
+
+        List<BookingResponseDto> winners = runConcurrently(THREADS, i -> {
+            try {
+                return bookingService.approve(owner.getId(), booking.getId(), i % 2 == 0);
+            } catch (ValidationException e) {
+                alreadyProcessed.incrementAndGet();
+                return null;
+            }
+        }).stream().filter(Objects::nonNull).toList();
+
+        assertEquals(1, winners.size());
+        assertEquals(THREADS - 1, alreadyProcessed.get());
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(winners.get(0).getStatus(), stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void approve_shouldMapFailedTransitionToStatusErrors() {
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Байдарка", "Двухместная", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingResponseDto first = bookingService.create(bookers.get(0).getId(),
+                new BookingDto(null, start, start.plusHours(2), item.getId()));
+        BookingResponseDto second = bookingService.create(bookers.get(1).getId(),
+                new BookingDto(null, start.plusHours(3), start.plusHours(4), item.getId()));
+
+        assertThrows(NotFoundException.class, () -> bookingService.approve(owner.getId(), Long.MAX_VALUE, true));
+        assertThrows(NotFoundException.class, () -> bookingService.approve(owner.getId(), Long.MAX_VALUE, false));
+        assertThrows(ForbiddenException.class,
+                () -> bookingService.approve(bookers.get(0).getId(), first.getId(), true));
+        assertEquals(BookingStatus.APPROVED, bookingService.approve(owner.getId(), first.getId(), true).getStatus());
+        assertThrows(ValidationException.class, () -> bookingService.approve(owner.getId(), first.getId(), false));
+        assertEquals(BookingStatus.REJECTED, bookingService.approve(owner.getId(), second.getId(), false).getStatus());
+    }
+
+    @Test
+    void concurrentCreate_forDifferentItems_shouldAllSucceed() throws Exception {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(itemService.create(owner.getId(), new ItemDto(null, "Вещь " + i, "Описание", true, null)));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingResponseDto> created = runConcurrently(THREADS, i -> bookingService.create(
+                bookers.get(i).getId(), new BookingDto(null, start, start.plusHours(2), items.get(i).getId())));
+
+        assertEquals(THREADS, created.size());
+    }
+
+    /**
+     * Вещи на разных полосах захватываются независимо, а вещь на занятой полосе ждёт и получает конфликт
+     * по таймауту. Первая полоса удерживается основным потоком, пока второй поток берёт свои.
+     */
+    @Test
+    void stripedLocks_shouldLockDifferentStripesIndependently() throws Exception {
+        ItemLockStripes locks = new ItemLockStripes(64, 100);
+        long firstItem = 1L;
+        long otherStripeItem = 2L;
+        long sameStripeItem = firstItem + locks.getStripeCount();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReentrantLock held = locks.acquire(firstItem);
+        try {
+            Future<Boolean> other = executor.submit(() -> {
+                ReentrantLock lock = locks.acquire(otherStripeItem);
+                lock.unlock();
+                return true;
+            });
+            assertTrue(other.get(5, TimeUnit.SECONDS));
+
+            Future<?> same = executor.submit(() -> locks.acquire(sameStripeItem));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> same.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ConflictException.class, e.getCause());
+        } finally {
+            held.unlock();
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> List<T> runConcurrently(int tasks, IntFunctionWithResult<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return task.apply(index);
+                }));
+            }
+            startGate.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof ConflictException)) {
+                        throw e;
+                    }
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = userService.create(new UserDto(null, name, name + "@example.com"));
+        createdUsers.add(user.getId());
+        return user;
+    }
+
+    @FunctionalInterface
+    private interface IntFunctionWithResult<T> {
+        T apply(int index) throws Exception;
+    }
+}
@@ -0,0 +1,134 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingScheduleIndexTest {
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void isBooked_shouldTreatIntervalsAsHalfOpen() {
+        BookingScheduleIndex index = indexWith(List.of(booking(1L, 10, 20, BookingStatus.APPROVED)));
+
+        assertTrue(index.isBooked(ITEM_ID, at(15), at(16)));
+        assertTrue(index.isBooked(ITEM_ID, at(5), at(11)));
+        assertTrue(index.isBooked(ITEM_ID, at(0), at(30)));
+        assertFalse(index.isBooked(ITEM_ID, at(20), at(25)));
+        assertFalse(index.isBooked(ITEM_ID, at(5), at(10)));
+    }
+
+    @Test
+    void onBookingSaved_shouldOccupyAndReleaseSlots() {
+        BookingScheduleIndex index = indexWith(new ArrayList<>());
+        assertFalse(index.isBooked(ITEM_ID, at(10), at(20)));
+
+        index.onBookingSaved(booking(7L, 10, 20, BookingStatus.WAITING));
+        assertTrue(index.isBooked(ITEM_ID, at(12), at(13)));
+
+        index.onBookingSaved(booking(7L, 10, 20, BookingStatus.REJECTED));
+        assertFalse(index.isBooked(ITEM_ID, at(12), at(13)));
+    }
+
+    @Test
+    void onBookingSaved_duringLoad_shouldNotLeaveStaleScheduleCached() {
+        BookingRepository repository = mock(BookingRepository.class);
+        BookingScheduleIndex index = new BookingScheduleIndex(repository, 100, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+        List<Booking> committed = new ArrayList<>();
+        when(repository.findByItem_IdAndStatusIn(eq(ITEM_ID), any())).thenAnswer(invocation -> {
+            List<Booking> snapshot = new ArrayList<>(committed);
+            if (committed.isEmpty()) {
+                Booking booking = booking(7L, 10, 20, BookingStatus.APPROVED);
+                committed.add(booking);
+                index.onBookingSaved(booking);
+            }
+            return snapshot;
+        });
+
+        assertFalse(index.isBooked(ITEM_ID, at(12), at(13)));
+        assertTrue(index.isBooked(ITEM_ID, at(12), at(13)));
+        verify(repository, times(2)).findByItem_IdAndStatusIn(eq(ITEM_ID), any());
+    }
+
+    @Test
+    void getFreeSlots_shouldReturnGapsInsideWindow() {
+        BookingScheduleIndex index = indexWith(List.of(
+                booking(1L, 10, 20, BookingStatus.APPROVED),
+                booking(2L, 15, 25, BookingStatus.WAITING),
+                booking(3L, 30, 40, BookingStatus.APPROVED)
+        ));
+
+        List<FreeSlotDto> slots = index.getFreeSlots(ITEM_ID, at(0), at(35));
+
+        assertEquals(2, slots.size());
+        assertEquals(at(0), slots.get(0).getStart());
+        assertEquals(at(10), slots.get(0).getEnd());
+        assertEquals(at(25), slots.get(1).getStart());
+        assertEquals(at(30), slots.get(1).getEnd());
+        assertTrue(index.getFreeSlots(ITEM_ID, at(11), at(24)).isEmpty());
+    }
+
+    @Test
+    void isBooked_shouldAgreeWithBruteForce() {
+        Random random = new Random(42);
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            int start = random.nextInt(10_000);
+            bookings.add(booking(id, start, start + 1 + random.nextInt(50), BookingStatus.APPROVED));
+        }
+        BookingScheduleIndex index = indexWith(bookings);
+        assertTrue(index.isBooked(ITEM_ID, at(0), at(10_100)));
+        for (int i = 0; i < 400; i++) {
+            Booking removed = bookings.remove(random.nextInt(bookings.size()));
+            index.onBookingSaved(booking(removed.getId(), 0, 1, BookingStatus.CANCELED));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int start = random.nextInt(10_100);
+            int end = start + 1 + random.nextInt(30);
+            boolean expected = bookings.stream()
+                    .anyMatch(b -> b.getStart().isBefore(at(end)) && at(start).isBefore(b.getEnd()));
+            assertEquals(expected, index.isBooked(ITEM_ID, at(start), at(end)), "окно " + start + ".." + end);
+        }
+    }
+
+    private static BookingScheduleIndex indexWith(List<Booking> bookings) {
+        BookingRepository repository = mock(BookingRepository.class);
+        when(repository.findByItem_IdAndStatusIn(eq(ITEM_ID), any())).thenReturn(new ArrayList<>(bookings));
+        return new BookingScheduleIndex(repository, 100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+
+    private static Booking booking(Long id, int startHour, int endHour, BookingStatus status) {
+        Item item = new Item();
+        item.setId(ITEM_ID);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(at(startHour));
+        booking.setEnd(at(endHour));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static LocalDateTime at(int hour) {
+        return BASE.plusHours(hour);
+    }
+}
@@ -0,0 +1,213 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.NdjsonWriter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@Transactional
+public class BookingServiceIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Owner", "owner@example.com"));
+        booker = userService.create(new UserDto(null, "Booker", "booker@example.com"));
+        item = itemService.create(owner.getId(), new ItemDto(null, "Дрель", "Ударная дрель", true, null));
+    }
+
+    @Test
+    void createBatch_shouldRejectBadRowsAndOverlapsWithinBatch() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        ItemDto other = itemService.create(owner.getId(), new ItemDto(null, "Пила", "Цепная", true, null));
+        ItemDto own = itemService.create(booker.getId(), new ItemDto(null, "Лыжи", "Беговые", true, null));
+
+        BatchResultDto<BookingResponseDto> result = bookingService.createBatch(booker.getId(), List.of(
+                new BookingDto(null, start.plusHours(2), start.plusHours(4), item.getId()),
+                new BookingDto(null, start.plusHours(3), start.plusHours(5), item.getId()),
+                new BookingDto(null, start.plusHours(1), start.plusHours(3), item.getId()),
+                new BookingDto(null, start, start.plusHours(1), other.getId()),
+                new BookingDto(null, start, start.plusHours(1), own.getId()),
+                new BookingDto(null, start, start.plusHours(1), Long.MAX_VALUE),
+                new BookingDto(null, start, start.plusHours(1), null)));
+
+        assertEquals(List.of(201, 409, 409, 201, 404, 404, 400),
+                result.getRows().stream().map(BatchResultDto.Row::getStatus).toList());
+        assertEquals("Нельзя забронировать собственную вещь", result.getRows().get(4).getError());
+        BookingResponseDto created = result.getRows().get(3).getBody();
+        assertEquals(BookingStatus.WAITING, bookingService.getById(booker.getId(), created.getId()).getStatus());
+        assertThrows(ValidationException.class, () -> bookingService.createBatch(booker.getId(), List.of()));
+    }
+
+    @Test
+    void getAllByBooker_shouldFilterByStateInDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = saveBooking(now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        Booking current = saveBooking(now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        Booking future = saveBooking(now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+        Booking rejected = saveBooking(now.plusDays(4), now.plusDays(5), BookingStatus.REJECTED);
+
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), past.getId()),
+                ids(bookingService.getAllByBooker(booker.getId(), "ALL", 0, 10, null)));
+        assertEquals(List.of(current.getId()), ids(bookingService.getAllByBooker(booker.getId(), "CURRENT", 0, 10, null)));
+        assertEquals(List.of(past.getId()), ids(bookingService.getAllByBooker(booker.getId(), "PAST", 0, 10, null)));
+        assertEquals(List.of(rejected.getId(), future.getId()),
+                ids(bookingService.getAllByBooker(booker.getId(), "FUTURE", 0, 10, null)));
+        assertEquals(List.of(future.getId()), ids(bookingService.getAllByOwner(owner.getId(), "WAITING", 0, 10, null)));
+        assertEquals(List.of(rejected.getId()), ids(bookingService.getAllByOwner(owner.getId(), "REJECTED", 0, 10, null)));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllByOwner(owner.getId(), "UNSUPPORTED", 0, 10, null));
+    }
+
+    @Test
+    void getAllByOwner_shouldPageByOffsetAndByCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            saveBooking(start, start.plusHours(1), BookingStatus.WAITING);
+        }
+        List<Long> all = ids(bookingService.getAllByOwner(owner.getId(), "ALL", 0, 10, null));
+        assertEquals(5, all.size());
+
+        List<BookingResponseDto> firstPage = bookingService.getAllByOwner(owner.getId(), "ALL", 0, 2, null);
+        String cursor = KeysetCursor.next(firstPage, 2, BookingResponseDto::getStart, BookingResponseDto::getId).orElseThrow();
+        List<BookingResponseDto> secondPage = bookingService.getAllByOwner(owner.getId(), "ALL", 0, 2, cursor);
+        List<BookingResponseDto> byOffset = bookingService.getAllByOwner(owner.getId(), "ALL", 3, 2, null);
+
+        assertEquals(all.subList(0, 2), ids(firstPage));
+        assertEquals(all.subList(2, 4), ids(secondPage));
+        assertEquals(all.subList(3, 5), ids(byOffset));
+        assertTrue(KeysetCursor.next(byOffset.subList(0, 1), 2, BookingResponseDto::getStart,
+                BookingResponseDto::getId).isEmpty());
+    }
+
+    @Test
+    void getAllByBooker_shouldBuildResponsesFromFlatRowsWithoutLoadingEntities() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking stored = saveBooking(start, start.plusHours(1), BookingStatus.WAITING);
+        saveBooking(start.plusHours(2), start.plusHours(3), BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long bookingLoads = statistics.getEntityStatistics(Booking.class.getName()).getLoadCount();
+        long itemLoads = statistics.getEntityStatistics(Item.class.getName()).getLoadCount();
+
+        List<BookingResponseDto> bookings = bookingService.getAllByBooker(booker.getId(), "ALL", 0, 10, null);
+
+        assertEquals(bookingLoads, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(itemLoads, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+        BookingResponseDto last = bookings.get(1);
+        assertEquals(stored.getId(), last.getId());
+        assertEquals(start, last.getStart());
+        assertEquals(BookingStatus.WAITING, last.getStatus());
+        assertEquals("Дрель", last.getItem().getName());
+        assertEquals("Ударная дрель", last.getItem().getDescription());
+        assertTrue(last.getItem().getAvailable());
+        assertEquals(booker.getEmail(), last.getBooker().getEmail());
+    }
+
+    @Test
+    void getETag_shouldChangeOnApproveAndHideForeignBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = saveBooking(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        bookingRepository.flush();
+        String tag = bookingService.getETag(booker.getId(), booking.getId());
+
+        assertEquals(tag, bookingService.getETag(owner.getId(), booking.getId()));
+        UserDto stranger = userService.create(new UserDto(null, "Stranger", "stranger@example.com"));
+        assertThrows(NotFoundException.class, () -> bookingService.getETag(stranger.getId(), booking.getId()));
+
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        bookingRepository.flush();
+        assertNotEquals(tag, bookingService.getETag(booker.getId(), booking.getId()));
+    }
+
+    @Test
+    void exportByOwner_shouldStreamEveryBookingAsNdjsonAcrossDetachedBatches() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> stored = new ArrayList<>();
+        for (int i = 0; i < BookingRepository.EXPORT_FETCH_SIZE * 2 + 7; i++) {
+            stored.add(saveBooking(start.plusHours(i), start.plusHours(i + 1), BookingStatus.WAITING));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+
+        bookingService.exportByOwner(owner.getId(), writer);
+        writer.finish();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType().split(";")[0]);
+        List<Long> exported = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            BookingResponseDto row = objectMapper.readValue(line, BookingResponseDto.class);
+            assertEquals(item.getId(), row.getItem().getId());
+            exported.add(row.getId());
+        }
+        assertEquals(stored.stream().map(Booking::getId).toList(), exported);
+        assertThrows(NotFoundException.class, () -> bookingService.exportByOwner(Long.MAX_VALUE, writer));
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(itemService.getItemById(item.getId()));
+        booking.setBooker(userService.getUserById(booker.getId()));
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).toList();
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.util.List;
 
@@ -69,8 +71,37 @@ public class ItemRequestServiceIntegrationTest {
         itemRequestService.create(user2.getId(), "Чужой запрос 1");
         itemRequestService.create(user2.getId(), "Чужой запрос 2");
 
-        List<ItemRequestResponseDto> others = itemRequestService.getAllOtherRequests(user1.getId(), 0, 10);
+        List<ItemRequestResponseDto> others = itemRequestService.getAllOtherRequests(user1.getId(), 0, 10, null);
         assertEquals(2, others.size());
         assertEquals("Чужой запрос 2", others.get(0).getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllOtherRequests_shouldPageByOffsetAndCursorAndAttachItems() {
+        for (int i = 0; i < 5; i++) {
+            itemRequestService.create(user1.getId(), "Мой запрос " + i);
+        }
+        for (int i = 1; i <= 5; i++) {
+            itemRequestService.create(user2.getId(), "Чужой запрос " + i);
+        }
+        ItemRequestResponseDto withItem = itemRequestService.create(user2.getId(), "Чужой запрос 6");
+        itemService.create(user1.getId(), new ItemDto(null, "Дрель", "Ударная", true, withItem.getId()));
+
+        List<ItemRequestResponseDto> offsetPage = itemRequestService.getAllOtherRequests(user1.getId(), 1, 2, null);
+        assertEquals(List.of("Чужой запрос 5", "Чужой запрос 4"),
+                offsetPage.stream().map(ItemRequestResponseDto::getDescription).toList());
+
+        List<ItemRequestResponseDto> first = itemRequestService.getAllOtherRequests(user1.getId(), 0, 3, null);
+        assertEquals(1, first.get(0).getItems().size());
+        assertEquals("Дрель", first.get(0).getItems().get(0).getName());
+        assertTrue(first.get(1).getItems().isEmpty());
+
+        String cursor = KeysetCursor.next(first, 3, ItemRequestResponseDto::getCreated, ItemRequestResponseDto::getId).orElseThrow();
+        List<ItemRequestResponseDto> second = itemRequestService.getAllOtherRequests(user1.getId(), 99, 3, cursor);
+        assertEquals(List.of("Чужой запрос 3", "Чужой запрос 2", "Чужой запрос 1"),
+                second.stream().map(ItemRequestResponseDto::getDescription).toList());
+        assertTrue(itemRequestService.getAllOtherRequests(user1.getId(), 0, 3,
+                KeysetCursor.next(second, 3, ItemRequestResponseDto::getCreated,
+                        ItemRequestResponseDto::getId).orElseThrow()).isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Перестроение индекса поиска доступно через JMX, а по HTTP эндпоинт itemsearch только читается.
+ * Контекст отдельный, поэтому и база своя: create-drop в общей testdb сбросил бы последовательности
+ * под кэшированными контекстами других тестов.
+ */
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jmx.enabled=true", "management.endpoints.jmx.exposure.include=itemsearch",
+                "management.endpoints.web.exposure.include=itemsearch",
+                "spring.datasource.url=jdbc:h2:mem:itemsearch-endpoint"})
+public class ItemSearchIndexEndpointTest {
+
+    @Autowired
+    private MBeanServer mBeanServer;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void rebuild_shouldBeJmxOperationOnly() throws Exception {
+        Set<ObjectName> names = mBeanServer.queryNames(
+                new ObjectName("org.springframework.boot:type=Endpoint,name=Itemsearch,*"), null);
+        assertEquals(1, names.size());
+        ObjectName name = names.iterator().next();
+        assertTrue(Arrays.stream(mBeanServer.getMBeanInfo(name).getOperations())
+                .map(MBeanOperationInfo::getName)
+                .toList()
+                .containsAll(List.of("stats", "rebuild")));
+
+        Object stats = mBeanServer.invoke(name, "rebuild", new Object[0], new String[0]);
+        assertEquals(Boolean.TRUE, ((Map<?, ?>) stats).get("ready"));
+
+        assertEquals(200, restTemplate.getForEntity("/actuator/itemsearch", String.class)
+                .getStatusCode().value());
+        assertFalse(restTemplate.postForEntity("/actuator/itemsearch", null, String.class)
+                .getStatusCode().is2xxSuccessful());
+    }
+}
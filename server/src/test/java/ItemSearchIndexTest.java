@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findByAvailableTrue(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(
+                item(1L, "Дрель", "Ударная дрель с кейсом", true),
+                item(2L, "Отвёртка", "Аккумуляторная", true)
+        )));
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchSubstringsIgnoringCase() {
+        assertEquals(List.of(1L), index.search("дРеЛь", 0, 10));
+        assertEquals(List.of(1L), index.search("кейс", 0, 10));
+        assertEquals(List.of(2L), index.search("аккум", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("р", 0, 10));
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+        assertTrue(index.search("дрельотвёртка", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldRankNameOverDescriptionAndWholeWordsOverSubstrings() {
+        index.onItemSaved(item(3L, "Чехол", "Под дрельку", true));
+        index.onItemSaved(item(4L, "Дрелька", "Детская", true));
+        index.onItemSaved(item(5L, "Перфоратор", "Работает как дрель", true));
+        index.onItemSaved(item(6L, "Дрель", "Старая", true));
+
+        assertEquals(List.of(1L, 6L, 4L, 5L, 3L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void search_shouldReturnRequestedPageOfRankedMatches() {
+        for (long id = 3; id <= 20; id++) {
+            index.onItemSaved(item(id, id % 2 == 0 ? "Дрель " + id : "Чехол " + id, "Для дрели", true));
+        }
+
+        assertEquals(List.of(1L, 4L, 6L), index.search("дрел", 0, 3));
+        assertEquals(List.of(8L, 10L, 12L), index.search("дрел", 3, 3));
+        assertEquals(List.of(19L), index.search("дрел", 18, 3));
+        assertTrue(index.search("дрел", 19, 3).isEmpty());
+    }
+
+    @Test
+    void onItemSaved_shouldReindexChangedTextAndAvailability() {
+        index.onItemSaved(item(1L, "Перфоратор", "Мощный", true));
+        index.onItemSaved(item(3L, "Дрель-шуруповёрт", "Компактная", true));
+        index.onItemSaved(item(2L, "Отвёртка", "Аккумуляторная", false));
+
+        assertEquals(List.of(3L), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("перфо", 0, 10));
+        assertTrue(index.search("аккум", 0, 10).isEmpty());
+        assertEquals(2, index.stats().getItems());
+    }
+
+    @Test
+    void onItemSaved_shouldIgnoreSnapshotsOlderThanApplied() {
+        index.onItemSaved(item(3L, "Палатка", "Трёхместная", true, 2L));
+        index.onItemSaved(item(3L, "Котелок", "Походный", true, 1L));
+
+        assertEquals(List.of(3L), index.search("палатка", 0, 10));
+        assertTrue(index.search("котелок", 0, 10).isEmpty());
+        assertEquals(List.of("палатка"), index.suggest("па", 10));
+
+        index.onItemSaved(item(3L, "Палатка", "Трёхместная", false, 3L));
+        index.onItemSaved(item(3L, "Палатка", "Трёхместная", true, 2L));
+
+        assertTrue(index.search("палатка", 0, 10).isEmpty());
+    }
+
+    @Test
+    void remove_shouldNotBeUndoneByLateSnapshot() {
+        index.remove(1L);
+        index.onItemSaved(item(1L, "Дрель", "Ударная дрель с кейсом", true, 5L));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertTrue(index.suggest("др", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_shouldReturnMostFrequentNameTokensForPrefix() {
+        index.onItemSaved(item(3L, "Дрель-шуруповёрт", "Компактная", true));
+        index.onItemSaved(item(4L, "Дрель ударная", "Мощная", true));
+        index.onItemSaved(item(5L, "Дробилка", "Садовая", true));
+        index.onItemSaved(item(6L, "Удочка", "Дрель", true));
+
+        assertEquals(List.of("дрель", "дробилка"), index.suggest("Др", 10));
+        assertEquals(List.of("дрель"), index.suggest("др", 1));
+        assertEquals(List.of("дробилка"), index.suggest("дро", 10));
+        assertEquals(List.of("ударная", "удочка"), index.suggest("уд", 10));
+        assertEquals(List.of("шуруповёрт"), index.suggest("шуруповёрт", 10));
+        assertTrue(index.suggest("дрелька", 10).isEmpty());
+        assertTrue(index.suggest("компакт", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_shouldFollowRenamesAndAvailability() {
+        index.onItemSaved(item(3L, "Дрожжи", "Свежие", true));
+        assertEquals(List.of("дрель", "дрожжи"), index.suggest("др", 10));
+
+        index.onItemSaved(item(1L, "Перфоратор", "Мощный", true));
+        index.onItemSaved(item(3L, "Дрожжи", "Свежие", false));
+
+        assertTrue(index.suggest("др", 10).isEmpty());
+        assertEquals(List.of("перфоратор"), index.suggest("пер", 10));
+        assertEquals(List.of("отвёртка"), index.suggest("о", 10));
+        assertEquals(2, index.stats().getNameTokens());
+    }
+
+    @Test
+    void supports_shouldLeaveLikeWildcardsToDatabase() {
+        assertTrue(index.supports("дрель"));
+        assertFalse(index.supports("др%ль"));
+        assertFalse(index.supports("др_ль"));
+        assertFalse(new ItemSearchIndex(itemRepository).supports("дрель"));
+    }
+
+    @Test
+    void stats_shouldReportSizeAndMemoryEstimate() {
+        assertTrue(index.stats().isReady());
+        assertEquals(2, index.stats().getItems());
+        assertTrue(index.stats().getTrigrams() > 0);
+        assertTrue(index.stats().getEstimatedBytes() > 0);
+
+        index.remove(1L);
+        index.remove(2L);
+
+        assertEquals(0, index.stats().getPostings());
+        assertEquals(0, index.stats().getTrigrams());
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return item(id, name, description, available, null);
+    }
+
+    private static Item item(Long id, String name, String description, boolean available, Long version) {
+        Item item = new Item();
+        item.setVersion(version);
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,217 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.NdjsonWriter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@Transactional
+public class ItemServiceIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Owner", "owner@example.com"));
+        booker = userService.create(new UserDto(null, "Booker", "booker@example.com"));
+    }
+
+    @Test
+    void getOwnerItems_shouldAttachLastNextBookingsAndComments() {
+        ItemDto drill = itemService.create(owner.getId(), new ItemDto(null, "Дрель", "Ударная дрель", true, null));
+        ItemDto saw = itemService.create(owner.getId(), new ItemDto(null, "Пила", "Ручная пила", true, null));
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = saveBooking(drill.getId(), now.minusDays(10), now.minusDays(9));
+        Booking last = saveBooking(drill.getId(), now.minusDays(3), now.minusDays(2));
+        Booking next = saveBooking(drill.getId(), now.plusDays(1), now.plusDays(2));
+        saveBooking(drill.getId(), now.plusDays(5), now.plusDays(6));
+        saveComment(drill.getId(), "Отличная дрель", now.minusDays(1));
+
+        List<ItemResponseDto> items = itemService.getOwnerItemsWithBookingsAndComments(owner.getId(), 0, 10);
+
+        assertEquals(2, items.size());
+        ItemResponseDto drillResponse = items.get(0);
+        assertEquals(drill.getId(), drillResponse.getId());
+        assertEquals(last.getId(), drillResponse.getLastBooking().getId());
+        assertNotEquals(older.getId(), drillResponse.getLastBooking().getId());
+        assertEquals(next.getId(), drillResponse.getNextBooking().getId());
+        assertEquals("Booker", drillResponse.getLastBooking().getBooker().getName());
+        assertEquals(1, drillResponse.getComments().size());
+        assertEquals("Booker", drillResponse.getComments().get(0).getAuthorName());
+
+        ItemResponseDto sawResponse = items.get(1);
+        assertEquals(saw.getId(), sawResponse.getId());
+        assertNull(sawResponse.getLastBooking());
+        assertNull(sawResponse.getNextBooking());
+        assertTrue(sawResponse.getComments().isEmpty());
+    }
+
+    @Test
+    void getOwnerItems_shouldPaginateByOffset() {
+        for (int i = 0; i < 5; i++) {
+            itemService.create(owner.getId(), new ItemDto(null, "Вещь " + i, "Описание " + i, true, null));
+        }
+
+        List<ItemResponseDto> page = itemService.getOwnerItemsWithBookingsAndComments(owner.getId(), 3, 2);
+
+        assertEquals(2, page.size());
+        assertEquals("Вещь 3", page.get(0).getName());
+        assertEquals("Вещь 4", page.get(1).getName());
+    }
+
+    @Test
+    void search_shouldRankAndPaginateLikeWildcardQueriesInDatabase() {
+        ItemDto cover = itemService.create(owner.getId(), new ItemDto(null, "Чехол", "Под дрель", true, null));
+        ItemDto drill = itemService.create(owner.getId(), new ItemDto(null, "Дрель", "Ударная", true, null));
+        ItemDto cordless = itemService.create(owner.getId(),
+                new ItemDto(null, "Дрель аккумуляторная", "С кейсом", true, null));
+
+        assertEquals(List.of(drill.getId(), cordless.getId(), cover.getId()),
+                itemService.search("др_ль", 0, 10).stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(cordless.getId()),
+                itemService.search("др_ль", 1, 1).stream().map(ItemDto::getId).toList());
+        assertThrows(ValidationException.class, () -> itemService.search("дрель", -1, 10));
+    }
+
+    @Test
+    void getETag_shouldChangeWithItemCommentsAndOwnerBookings() {
+        ItemDto drill = itemService.create(owner.getId(), new ItemDto(null, "Дрель", "Ударная дрель", true, null));
+        entityManager.flush();
+        String ownerTag = itemService.getETag(drill.getId(), owner.getId());
+        String otherTag = itemService.getETag(drill.getId(), booker.getId());
+
+        assertEquals(ownerTag, itemService.getETag(drill.getId(), owner.getId()));
+        assertNotEquals(ownerTag, otherTag);
+        assertEquals(otherTag, itemService.getETag(drill.getId(), null));
+
+        itemService.update(owner.getId(), drill.getId(), new ItemDto(null, "Дрель 2", null, null, null));
+        entityManager.flush();
+        String updatedTag = itemService.getETag(drill.getId(), booker.getId());
+        assertNotEquals(otherTag, updatedTag);
+
+        saveComment(drill.getId(), "Отличная дрель", LocalDateTime.now());
+        entityManager.flush();
+        String commentedTag = itemService.getETag(drill.getId(), booker.getId());
+        assertNotEquals(updatedTag, commentedTag);
+
+        String ownerBefore = itemService.getETag(drill.getId(), owner.getId());
+        saveBooking(drill.getId(), LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        entityManager.flush();
+        assertNotEquals(ownerBefore, itemService.getETag(drill.getId(), owner.getId()));
+        assertEquals(commentedTag, itemService.getETag(drill.getId(), booker.getId()));
+    }
+
+    @Test
+    void lastAndNextBookings_shouldBreakTimeTiesByIdInBodyAndETag() {
+        ItemDto drill = itemService.create(owner.getId(), new ItemDto(null, "Дрель", "Ударная дрель", true, null));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        saveBooking(drill.getId(), now.minusDays(3), now.minusDays(2));
+        Booking last = saveBooking(drill.getId(), now.minusDays(4), now.minusDays(2));
+        Booking next = saveBooking(drill.getId(), now.plusDays(1), now.plusDays(2));
+        saveBooking(drill.getId(), now.plusDays(1), now.plusDays(3));
+
+        ItemResponseDto single = itemService.getByIdWithBookingsAndComments(drill.getId(), owner.getId());
+        ItemResponseDto listed = itemService.getOwnerItemsWithBookingsAndComments(owner.getId(), 0, 10).get(0);
+        String etag = itemService.getETag(drill.getId(), owner.getId());
+
+        assertEquals(last.getId(), single.getLastBooking().getId());
+        assertEquals(next.getId(), single.getNextBooking().getId());
+        assertEquals(last.getId(), listed.getLastBooking().getId());
+        assertEquals(next.getId(), listed.getNextBooking().getId());
+        assertTrue(etag.contains("-l" + last.getId() + "."), etag);
+        assertTrue(etag.contains("-n" + next.getId() + "."), etag);
+    }
+
+    @Test
+    void exportByOwner_shouldStreamEveryItemAsNdjsonAcrossDetachedBatches() throws Exception {
+        itemService.create(booker.getId(), new ItemDto(null, "Чужая вещь", "Не выгружается", true, null));
+        List<Long> stored = new ArrayList<>();
+        for (int i = 0; i < ItemRepository.EXPORT_FETCH_SIZE * 2 + 7; i++) {
+            stored.add(itemService.create(owner.getId(), new ItemDto(null, "Вещь " + i, "Описание", i % 2 == 0, null))
+                    .getId());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+
+        itemService.exportByOwner(owner.getId(), writer);
+        writer.finish();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType().split(";")[0]);
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(stored.size(), lines.length);
+        List<Long> exported = new ArrayList<>();
+        for (String line : lines) {
+            ItemDto row = objectMapper.readValue(line, ItemDto.class);
+            int index = exported.size();
+            assertEquals("Вещь " + index, row.getName());
+            assertEquals(index % 2 == 0, row.getAvailable());
+            exported.add(row.getId());
+        }
+        assertEquals(stored, exported);
+        assertThrows(NotFoundException.class, () -> itemService.exportByOwner(Long.MAX_VALUE, writer));
+    }
+
+    private Booking saveBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(itemService.getItemById(itemId));
+        booking.setBooker(userService.getUserById(booker.getId()));
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return bookingRepository.save(booking);
+    }
+
+    private void saveComment(Long itemId, String text, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setItem(itemService.getItemById(itemId));
+        comment.setAuthor(userService.getUserById(booker.getId()));
+        comment.setText(text);
+        comment.setCreated(created);
+        commentRepository.save(comment);
+    }
+}
@@ -0,0 +1,140 @@
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Согласованность кэша второго уровня Hibernate с записью. Каждое действие идёт в своей транзакции,
+ * чтобы чтение попадало в новый persistence context и обращалось к L2, поэтому тест не транзакционный.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+public class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private final List<Long> createdUsers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = createUser("L2 owner", "l2-owner@example.com");
+    }
+
+    /**
+     * Контекст общий с другими тестами, поэтому удаляются только созданные здесь пользователи и через сервис:
+     * их вещи и запросы уходят каскадом, а кэши и индекс поиска сбрасываются.
+     */
+    @AfterEach
+    void tearDown() {
+        createdUsers.forEach(userService::delete);
+    }
+
+    @Test
+    void itemUpdate_shouldBeVisibleThroughSecondLevelCache() {
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Старое", "Описание", true, null));
+        loadItem(item.getId());
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        assertEquals("Старое", loadItem(item.getId()).getName());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits, "повторное чтение вещи должно попасть в L2");
+
+        itemService.update(owner.getId(), item.getId(), new ItemDto(null, "Новое", null, false, null));
+
+        Item reloaded = loadItem(item.getId());
+        assertEquals("Новое", reloaded.getName());
+        assertFalse(reloaded.getAvailable());
+    }
+
+    @Test
+    void userDelete_shouldEvictUserAndCascadedItemsFromSecondLevelCache() {
+        UserDto user = createUser("Temporary", "temporary@example.com");
+        ItemDto item = itemService.create(user.getId(), new ItemDto(null, "Палатка", "Двухместная", true, null));
+        ItemRequestResponseDto request = itemRequestService.create(user.getId(), "Нужен котелок");
+        assertTrue(transactionTemplate.execute(status -> userRepository.findById(user.getId())).isPresent());
+        transactionTemplate.execute(status -> itemRequestService.getRequestById(request.getId()));
+        loadItem(item.getId());
+        long hits = statistics.getSecondLevelCacheHitCount();
+        loadItem(item.getId());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits, "вещь должна лежать в L2 до удаления владельца");
+
+        userService.delete(user.getId());
+
+        assertTrue(transactionTemplate.execute(status -> userRepository.findById(user.getId())).isEmpty());
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+        assertThrows(NotFoundException.class, () -> loadItem(item.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getETag(item.getId(), null));
+        assertThrows(NotFoundException.class,
+                () -> transactionTemplate.execute(status -> itemRequestService.getRequestById(request.getId())));
+    }
+
+    @Test
+    void findByRequest_shouldUseQueryCacheAndSeeNewItems() {
+        UserDto requestor = createUser("Requestor", "l2-requestor@example.com");
+        ItemRequestResponseDto request = itemRequestService.create(requestor.getId(), "Нужна стремянка");
+        assertTrue(findByRequest(request.getId()).isEmpty());
+        long queryHits = statistics.getQueryCacheHitCount();
+
+        assertTrue(findByRequest(request.getId()).isEmpty());
+        assertTrue(statistics.getQueryCacheHitCount() > queryHits, "повторный запрос должен попасть в кэш запросов");
+
+        itemService.create(owner.getId(), new ItemDto(null, "Стремянка", "Три ступени", true, request.getId()));
+
+        assertEquals(1, findByRequest(request.getId()).size());
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto user = userService.create(new UserDto(null, name, email));
+        createdUsers.add(user.getId());
+        return user;
+    }
+
+    private Item loadItem(Long itemId) {
+        return transactionTemplate.execute(status -> itemService.getItemById(itemId));
+    }
+
+    private List<Item> findByRequest(Long requestId) {
+        return transactionTemplate.execute(status -> itemRepository.findByRequest(requestId));
+    }
+}
@@ -0,0 +1,308 @@
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бюджеты SQL-операторов для публичных методов сервисов. Перед каждым замером кэш второго уровня
+ * сбрасывается, так что бюджет — это число операторов на холодном кэше. Методы со списками замеряются
+ * на одной и на {@link #LARGE} строках: число операторов не должно зависеть от размера выборки.
+ * Превышение бюджета — повод искать N+1, а не поднимать число.
+ * Тест не транзакционный, чтобы в замер попадали INSERT и UPDATE при коммите. Контекст у теста свой
+ * из-за {@link SqlStatementRecorder}, поэтому и база своя: всё в ней — его фикстура.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = "spring.datasource.url=jdbc:h2:mem:sql-budget")
+@Import(SqlStatementRecorder.class)
+public class SqlStatementBudgetTest {
+    private static final int LARGE = 5;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto single;
+    private final List<ItemDto> ownerItems = new ArrayList<>();
+    private ItemDto singleItem;
+    private final List<Booking> pastBookings = new ArrayList<>();
+
+    /**
+     * owner владеет LARGE вещами, single — одной. У каждой вещи есть завершённое и будущее бронирование
+     * и комментарий, каждая отвечает на свой запрос: запросы вещей owner создал booker, вещи single — сам single.
+     * booker бронирует вещи owner, single — одну из них. К первой вещи owner ещё LARGE комментариев разных авторов.
+     */
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Owner", "budget-owner@example.com"));
+        booker = userService.create(new UserDto(null, "Booker", "budget-booker@example.com"));
+        single = userService.create(new UserDto(null, "Single", "budget-single@example.com"));
+        for (int i = 0; i < LARGE; i++) {
+            ItemRequestResponseDto request = itemRequestService.create(booker.getId(), "Нужна дрель " + i);
+            ownerItems.add(itemService.create(owner.getId(),
+                    new ItemDto(null, "Дрель " + i, "Ударная дрель", true, request.getId())));
+        }
+        ItemRequestResponseDto request = itemRequestService.create(single.getId(), "Нужна пила");
+        singleItem = itemService.create(single.getId(), new ItemDto(null, "Пила", "Цепная пила", true, request.getId()));
+        for (ItemDto item : ownerItems) {
+            pastBookings.add(saveBooking(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+            saveBooking(item, booker, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+            saveComment(item, booker);
+        }
+        saveBooking(singleItem, owner, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(singleItem, owner, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+        saveComment(singleItem, owner);
+        saveBooking(ownerItems.get(0), single, now.plusDays(5), now.plusDays(6), BookingStatus.WAITING);
+        for (int i = 0; i < LARGE; i++) {
+            saveComment(ownerItems.get(0), userService.create(
+                    new UserDto(null, "Commenter " + i, "budget-commenter" + i + "@example.com")));
+        }
+    }
+
+    /**
+     * Бронирования связывают пользователей в обе стороны и удаляются репозиторием: их вещи удаляются
+     * следом, и календари этих вещей больше не запрашиваются. Пользователи удаляются через сервис,
+     * который сбрасывает кэши и индекс поиска; вещи, комментарии и запросы уходят каскадом.
+     */
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        userRepository.findAll().forEach(user -> userService.delete(user.getId()));
+    }
+
+    @Test
+    void itemService_shouldStayWithinStatementBudgets() throws Exception {
+        Long itemId = ownerItems.get(0).getId();
+        List<Long> ownerItemIds = ownerItems.stream().map(ItemDto::getId).toList();
+
+        budget(2, () -> itemService.create(owner.getId(), new ItemDto(null, "Лобзик", "Электрический", true, null)));
+        assertSizeIndependent(2,
+                () -> itemService.createBatch(single.getId(), itemDtos(1)),
+                () -> itemService.createBatch(single.getId(), itemDtos(LARGE)));
+        budget(2, () -> itemService.update(owner.getId(), itemId, new ItemDto(null, "Перфоратор", null, null, null)));
+        assertSizeIndependent(4,
+                () -> itemService.getByIdWithBookingsAndComments(singleItem.getId(), single.getId()),
+                () -> itemService.getByIdWithBookingsAndComments(itemId, owner.getId()));
+        budget(2, () -> itemService.getByIdWithBookingsAndComments(itemId, booker.getId()));
+        budget(4, () -> itemService.getETag(itemId, owner.getId()));
+        assertSizeIndependent(5,
+                () -> itemService.getOwnerItemsWithBookingsAndComments(single.getId(), 0, 10),
+                () -> itemService.getOwnerItemsWithBookingsAndComments(owner.getId(), 0, 10));
+        assertSizeIndependent(2,
+                () -> itemService.exportByOwner(single.getId(), dto -> { }),
+                () -> itemService.exportByOwner(owner.getId(), dto -> { }));
+        assertSizeIndependent(1,
+                () -> itemService.search("Пила", 0, 10),
+                () -> itemService.search("Дрель", 0, 10));
+        budget(1, () -> itemService.search("100%", 0, 10));
+        budget(0, () -> itemService.suggest("Дре", 10));
+        budget(2, () -> itemService.getAvailability(itemId, now, now.plusDays(10)));
+        budget(4, () -> itemService.addComment(booker.getId(), itemId, new CommentDto(null, "Отлично", null, null)));
+        budget(1, () -> itemService.getItemById(itemId));
+        assertSizeIndependent(1,
+                () -> itemService.getItemsById(List.of(singleItem.getId())),
+                () -> itemService.getItemsById(ownerItemIds));
+    }
+
+    @Test
+    void bookingService_shouldStayWithinStatementBudgets() throws Exception {
+        ItemDto item = ownerItems.get(LARGE - 1);
+        Long pastBookingId = pastBookings.get(0).getId();
+
+        budget(4, () -> bookingService.create(single.getId(),
+                new BookingDto(null, now.plusDays(10), now.plusDays(11), item.getId())));
+        assertSizeIndependent(3,
+                () -> bookingService.createBatch(single.getId(), bookingDtos(item, now.plusDays(20), 1)),
+                () -> bookingService.createBatch(single.getId(), bookingDtos(item, now.plusDays(30), LARGE)));
+        Long waiting = bookingService.create(single.getId(),
+                new BookingDto(null, now.plusDays(40), now.plusDays(41), item.getId())).getId();
+        Long rejected = bookingService.create(single.getId(),
+                new BookingDto(null, now.plusDays(50), now.plusDays(51), item.getId())).getId();
+        budget(5, () -> bookingService.approve(owner.getId(), waiting, true));
+        budget(4, () -> bookingService.approve(owner.getId(), rejected, false));
+        budget(3, () -> bookingService.getById(booker.getId(), pastBookingId));
+        budget(1, () -> bookingService.getETag(booker.getId(), pastBookingId));
+        for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+            assertSizeIndependent(2,
+                    () -> bookingService.getAllByBooker(owner.getId(), state, 0, 20, null),
+                    () -> bookingService.getAllByBooker(booker.getId(), state, 0, 20, null));
+            assertSizeIndependent(2,
+                    () -> bookingService.getAllByOwner(single.getId(), state, 0, 20, null),
+                    () -> bookingService.getAllByOwner(owner.getId(), state, 0, 20, null));
+        }
+        assertSizeIndependent(2,
+                () -> bookingService.exportByOwner(single.getId(), dto -> { }),
+                () -> bookingService.exportByOwner(owner.getId(), dto -> { }));
+    }
+
+    @Test
+    void itemRequestService_shouldStayWithinStatementBudgets() throws Exception {
+        Long requestId = ownerItems.get(0).getRequestId();
+
+        budget(2, () -> itemRequestService.create(owner.getId(), "Нужен молоток"));
+        assertSizeIndependent(3,
+                () -> itemRequestService.getOwnRequests(single.getId()),
+                () -> itemRequestService.getOwnRequests(booker.getId()));
+        assertSizeIndependent(3,
+                () -> itemRequestService.getAllOtherRequests(booker.getId(), 0, 20, null),
+                () -> itemRequestService.getAllOtherRequests(single.getId(), 0, 20, null));
+        budget(2, () -> itemRequestService.getRequestById(requestId));
+    }
+
+    @Test
+    void userService_shouldStayWithinStatementBudgets() throws Exception {
+        budget(2, () -> userService.create(new UserDto(null, "New", "budget-new@example.com")));
+        assertSizeIndependent(2,
+                () -> userService.createBatch(userDtos("one", 1)),
+                () -> userService.createBatch(userDtos("many", LARGE)));
+        budget(3, () -> userService.update(single.getId(), new UserDto(null, "Renamed", "budget-renamed@example.com")));
+        budget(1, () -> userService.getById(owner.getId()));
+        budget(1, () -> userService.getUserById(owner.getId()));
+        UserDto removable = userService.create(new UserDto(null, "Removable", "budget-removable@example.com"));
+        // Третий оператор — id вещей владельца для индекса поиска, один на любое их число.
+        budget(3, () -> {
+            userService.delete(removable.getId());
+            return null;
+        });
+    }
+
+    private int budget(int max, Callable<?> action) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        for (UserDto user : List.of(owner, booker, single)) {
+            userCache.evict(user.getId());
+        }
+        return recorder.assertAtMost(max, action);
+    }
+
+    private void assertSizeIndependent(int max, Callable<?> small, Callable<?> large) throws Exception {
+        assertEquals(budget(max, small), budget(max, large), "число операторов зависит от размера выборки");
+    }
+
+    private void budget(int max, Runnable action) throws Exception {
+        budget(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void assertSizeIndependent(int max, Runnable small, Runnable large) throws Exception {
+        assertSizeIndependent(max, () -> {
+            small.run();
+            return null;
+        }, () -> {
+            large.run();
+            return null;
+        });
+    }
+
+    private static List<ItemDto> itemDtos(int count) {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new ItemDto(null, "Пакет " + i, "Вещь из пакета", true, null));
+        }
+        return items;
+    }
+
+    private static List<BookingDto> bookingDtos(ItemDto item, LocalDateTime start, int count) {
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookings.add(new BookingDto(null, start.plusHours(i), start.plusHours(i).plusMinutes(30), item.getId()));
+        }
+        return bookings;
+    }
+
+    private static List<UserDto> userDtos(String prefix, int count) {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new UserDto(null, "User " + i, "budget-" + prefix + i + "@example.com"));
+        }
+        return users;
+    }
+
+    private Booking saveBooking(ItemDto item, UserDto user, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(reference(Item.class, item.getId()));
+        booking.setBooker(reference(User.class, user.getId()));
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private void saveComment(ItemDto item, UserDto author) {
+        Comment comment = new Comment();
+        comment.setText("Хорошая вещь");
+        comment.setItem(reference(Item.class, item.getId()));
+        comment.setAuthor(reference(User.class, author.getId()));
+        comment.setCreated(now.minusDays(1));
+        commentRepository.save(comment);
+    }
+
+    private <T> T reference(Class<T> type, Long id) {
+        return type == Item.class
+                ? type.cast(itemRepository.getReferenceById(id))
+                : type.cast(userRepository.getReferenceById(id));
+    }
+}
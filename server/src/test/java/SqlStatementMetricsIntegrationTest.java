@@ -0,0 +1,55 @@
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.monitoring.SqlStatementMetricsFilter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Метрики запроса: число SQL-операторов на запрос и таймер метода сервиса.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+public class SqlStatementMetricsIntegrationTest {
+
+    @Autowired
+    private SqlStatementMetricsFilter filter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void request_shouldRecordSqlStatementCountAndServiceTimer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users");
+        AtomicReference<UserDto> created = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                created.set(userService.create(new UserDto(null, "Metrics", "metrics@example.com"))));
+
+        try {
+            DistributionSummary statements = meterRegistry.get("shareit.http.sql.statements")
+                    .tag("method", "POST").tag("uri", "/users").summary();
+            assertEquals(1, statements.count());
+            assertTrue(statements.totalAmount() >= 2, "проверка email и INSERT");
+            Timer create = meterRegistry.get("shareit.service")
+                    .tag("class", "ru.practicum.shareit.user.service.UserService").tag("method", "create").timer();
+            assertTrue(create.count() >= 1);
+        } finally {
+            userService.delete(created.get().getId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Оборачивает DataSource контекста прокси datasource-proxy и записывает SQL, выполненный в текущем потоке
+ * во время {@link #record}. Пакет executeBatch считается одним оператором: это один обмен с БД.
+ * Выборка следующего блока id из последовательности не считается: она случается раз в allocationSize
+ * вставок и зависит от того, сколько строк вставили до замера.
+ * Подключается к тесту через @Import.
+ */
+public class SqlStatementRecorder implements BeanPostProcessor {
+    private static final Pattern SEQUENCE_FETCH = Pattern.compile("(?i)next value for|nextval\\(");
+
+    private final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new Listener())
+                .build();
+    }
+
+    /**
+     * Выполняет действие и возвращает SQL, который оно отправило в БД, в порядке выполнения.
+     */
+    public List<String> record(Callable<?> action) throws Exception {
+        List<String> statements = new ArrayList<>();
+        recorded.set(statements);
+        try {
+            action.call();
+        } finally {
+            recorded.remove();
+        }
+        return statements;
+    }
+
+    /**
+     * Выполняет действие и падает, если оно отправило в БД больше budget операторов; возвращает их число.
+     */
+    public int assertAtMost(int budget, Callable<?> action) throws Exception {
+        List<String> statements = record(action);
+        if (statements.size() > budget) {
+            fail("Ожидалось не больше " + budget + " SQL-операторов, выполнено " + statements.size() + ":\n"
+                    + statements.stream().map(sql -> "\t" + sql).collect(Collectors.joining("\n")));
+        }
+        return statements.size();
+    }
+
+    private class Listener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<String> statements = recorded.get();
+            if (statements == null) {
+                return;
+            }
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            if (!SEQUENCE_FETCH.matcher(sql).find()) {
+                statements.add(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+@Transactional
+public class UserServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Test
+    void getUserById_shouldServeRepeatedLookupsFromCache() {
+        UserDto user = userService.create(new UserDto(null, "Cached", "cached@example.com"));
+        long hits = userCache.stats().hitCount();
+        long misses = userCache.stats().missCount();
+
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        assertEquals(hits + 2, userCache.stats().hitCount());
+        assertEquals(misses + 1, userCache.stats().missCount());
+    }
+
+    @Test
+    void getUserById_shouldReturnCopiesThatDoNotLeakIntoCache() {
+        UserDto user = userService.create(new UserDto(null, "Original", "original@example.com"));
+        User first = userService.getUserById(user.getId());
+        first.setName("Changed");
+
+        assertEquals("Original", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void get_shouldNotKeepUserEvictedWhileLoading() {
+        UserDto user = userService.create(new UserDto(null, "Fresh", "fresh-load@example.com"));
+        User stale = new User(user.getId(), "Stale", user.getEmail(), 0L);
+        userCache.get(user.getId(), id -> {
+            userCache.evict(id);
+            return Optional.of(stale);
+        });
+        AtomicInteger loads = new AtomicInteger();
+
+        userCache.get(user.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(stale);
+        });
+
+        assertEquals(1, loads.get(), "строка, загруженная до вытеснения, не должна остаться в кэше");
+    }
+
+    @Test
+    void updateAndDelete_shouldEvictCachedUser() {
+        UserDto user = userService.create(new UserDto(null, "Before", "before@example.com"));
+        userService.getUserById(user.getId());
+
+        userService.update(user.getId(), new UserDto(null, "After", null));
+        assertEquals("After", userService.getUserById(user.getId()).getName());
+
+        userService.delete(user.getId());
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void createBatch_shouldRejectBadRowsWithoutAbortingBatch() {
+        userService.create(new UserDto(null, "Existing", "taken@example.com"));
+
+        BatchResultDto<UserDto> result = userService.createBatch(List.of(
+                new UserDto(null, "First", "first@example.com"),
+                new UserDto(null, "Taken", "TAKEN@example.com"),
+                new UserDto(null, "Invalid", "not-an-email"),
+                new UserDto(null, "Duplicate", "first@example.com"),
+                new UserDto(99L, "Second", "second@example.com")));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(201, 409, 400, 409, 201),
+                result.getRows().stream().map(BatchResultDto.Row::getStatus).toList());
+        UserDto second = result.getRows().get(4).getBody();
+        assertNotEquals(99L, second.getId());
+        assertEquals("second@example.com", userService.getById(second.getId()).getEmail());
+        assertNotNull(result.getRows().get(2).getError());
+    }
+}
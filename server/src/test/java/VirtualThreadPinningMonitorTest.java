@@ -0,0 +1,46 @@
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.monitoring.VirtualThreadPinningMonitor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTest {
+    private final Object monitor = new Object();
+
+    @Test
+    void shouldReportSleepInsideSynchronizedOnVirtualThread() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10), registry);
+        pinningMonitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepPinned).join();
+
+            Timer timer = null;
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (timer == null && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+                timer = registry.find("shareit.virtual-threads.pinned").timer();
+            }
+            assertNotNull(timer, "событие закрепления не получено");
+            assertTrue(timer.getId().getTag("site").startsWith("VirtualThreadPinningMonitorTest."));
+            assertTrue(timer.max(TimeUnit.MILLISECONDS) >= 10);
+        } finally {
+            pinningMonitor.stop();
+        }
+        assertFalse(pinningMonitor.isRunning());
+    }
+
+    private void sleepPinned() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
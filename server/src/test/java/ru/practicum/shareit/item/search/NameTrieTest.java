@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сверка сжатого дерева с прямым подсчётом по словарю. Короткие слова из трёх букв часто делят префиксы,
+ * поэтому случайные добавления и удаления проходят через разбиение дуг, склейку узлов и пересчёт best.
+ */
+public class NameTrieTest {
+    private static final List<String> PREFIXES = List.of("", "A", "AB", "BA", "C", "ABC", "CCA");
+    private static final int LIMIT = 5;
+
+    @Test
+    void suggest_shouldAgreeWithBruteForceModel() {
+        Random random = new Random(1);
+        for (int round = 0; round < 20; round++) {
+            NameTrie trie = new NameTrie();
+            Map<String, Integer> model = new HashMap<>();
+            for (int op = 1; op <= 1_000; op++) {
+                String token = randomToken(random);
+                if (random.nextInt(3) < 2) {
+                    trie.add(token);
+                    model.merge(token, 1, Integer::sum);
+                } else {
+                    trie.remove(token);
+                    model.computeIfPresent(token, (t, count) -> count == 1 ? null : count - 1);
+                }
+                if (op % 50 == 0) {
+                    assertEquals(model.size(), trie.size(), "раунд " + round + ", операция " + op);
+                    for (String prefix : PREFIXES) {
+                        assertEquals(expected(model, prefix), trie.suggest(prefix, LIMIT),
+                                "раунд " + round + ", операция " + op + ", префикс " + prefix);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void remove_shouldLeaveEmptyTrieAfterAllTokensAreGone() {
+        NameTrie trie = new NameTrie();
+        List<String> tokens = List.of("ABC", "AB", "ABD", "A", "B", "ABC");
+        tokens.forEach(trie::add);
+        assertEquals(List.of("ABC", "A", "AB", "ABD"), trie.suggest("A", 10));
+
+        tokens.forEach(trie::remove);
+
+        assertEquals(0, trie.size());
+        assertTrue(trie.suggest("", 10).isEmpty());
+        trie.add("ABD");
+        assertEquals(List.of("ABD"), trie.suggest("AB", 10));
+    }
+
+    private static List<String> expected(Map<String, Integer> model, String prefix) {
+        return model.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .limit(LIMIT)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static String randomToken(Random random) {
+        StringBuilder token = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            token.append((char) ('A' + random.nextInt(3)));
+        }
+        return token.toString();
+    }
+}